@@ -0,0 +1,16 @@
+package com.premisave.auth.client;
+
+/**
+ * The token is malformed, expired, not issued by the auth service or signed with a key it doesn't
+ * publish. Callers should answer 401.
+ */
+public class InvalidTokenException extends RuntimeException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
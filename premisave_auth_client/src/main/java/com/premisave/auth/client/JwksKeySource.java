@@ -0,0 +1,191 @@
+package com.premisave.auth.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Public keys from the auth service's JWKS, by {@code kid}. The document is fetched on first use
+ * and again once the server's {@code max-age} has passed, so in steady state a service makes one
+ * request every few minutes however many tokens it checks. A {@code kid} that isn't cached, as
+ * happens right after a rotation, triggers an early refetch, at most once per
+ * {@code minRefreshInterval} so forged key ids can't be used to flood the auth service. If a
+ * refetch fails the keys already held stay in use. If the first fetch fails, callers are refused
+ * at once until {@code minRefreshInterval} has passed, rather than each waiting on its own fetch.
+ */
+public class JwksKeySource {
+
+    private record Snapshot(Map<String, PublicKey> keys, Instant fetchedAt, Instant expiresAt) {
+    }
+
+    private record Failure(Instant at, Exception cause) {
+    }
+
+    private static final System.Logger LOG = System.getLogger(JwksKeySource.class.getName());
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final URI jwksUri;
+    private final HttpClient httpClient;
+    private final Duration defaultMaxAge;
+    private final Duration minRefreshInterval;
+    private final Clock clock;
+    // Not synchronized: a virtual thread blocked in a monitor over the HTTP call pins its carrier
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+    // Set while no keys have ever been fetched and the last attempt failed
+    private volatile Failure initialFailure;
+
+    public JwksKeySource(URI jwksUri, HttpClient httpClient, Duration defaultMaxAge, Duration minRefreshInterval,
+                         Clock clock) {
+        this.jwksUri = jwksUri;
+        this.httpClient = httpClient;
+        this.defaultMaxAge = defaultMaxAge;
+        this.minRefreshInterval = minRefreshInterval;
+        this.clock = clock;
+    }
+
+    public static JwksKeySource of(URI jwksUri) {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        return new JwksKeySource(jwksUri, client, Duration.ofMinutes(5), Duration.ofSeconds(30), Clock.systemUTC());
+    }
+
+    /**
+     * The published key with this id, or null if the auth service doesn't publish one.
+     *
+     * @throws JwksUnavailableException if the keys have never been fetched successfully
+     */
+    public PublicKey key(String kid) {
+        Instant now = clock.instant();
+        Snapshot current = snapshot;
+        if (current == null) {
+            throwIfRecentlyFailed(now);
+        }
+        if (current == null || !now.isBefore(current.expiresAt())) {
+            current = refresh(current);
+        }
+        PublicKey key = current.keys().get(kid);
+        if (key == null && !now.isBefore(current.fetchedAt().plus(minRefreshInterval))) {
+            key = refresh(current).keys().get(kid);
+        }
+        return key;
+    }
+
+    // One fetch at a time; callers that waited on it reuse its result instead of fetching again
+    private Snapshot refresh(Snapshot seen) {
+        refreshLock.lock();
+        try {
+            return fetch(seen);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Snapshot fetch(Snapshot seen) {
+        Snapshot current = snapshot;
+        if (current != seen) {
+            return current;
+        }
+        Instant now = clock.instant();
+        if (current == null) {
+            // Callers that queued behind a failed first fetch fail with it instead of fetching again
+            throwIfRecentlyFailed(now);
+        }
+        try {
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(jwksUri).timeout(Duration.ofSeconds(5)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("JWKS request returned " + response.statusCode());
+            }
+            Duration maxAge = response.headers().firstValue("Cache-Control")
+                    .map(MAX_AGE::matcher)
+                    .filter(Matcher::find)
+                    .map(m -> Duration.ofSeconds(Long.parseLong(m.group(1))))
+                    .orElse(defaultMaxAge);
+            current = new Snapshot(parse(response.body()), now, now.plus(maxAge));
+        } catch (IOException | RuntimeException e) {
+            if (seen == null) {
+                initialFailure = new Failure(now, e);
+                throw new JwksUnavailableException("Could not fetch signing keys from " + jwksUri, e);
+            }
+            LOG.log(System.Logger.Level.WARNING, "Could not refresh signing keys from " + jwksUri
+                    + "; keeping the cached ones", e);
+            current = new Snapshot(seen.keys(), now, now.plus(minRefreshInterval));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JwksUnavailableException("Interrupted fetching signing keys from " + jwksUri, e);
+        }
+        snapshot = current;
+        initialFailure = null;
+        return current;
+    }
+
+    private void throwIfRecentlyFailed(Instant now) {
+        Failure failure = initialFailure;
+        if (failure != null && now.isBefore(failure.at().plus(minRefreshInterval))) {
+            throw new JwksUnavailableException("Could not fetch signing keys from " + jwksUri
+                    + "; not retrying until " + failure.at().plus(minRefreshInterval), failure.cause());
+        }
+    }
+
+    private static Map<String, PublicKey> parse(String body) throws IOException {
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (JsonNode jwk : MAPPER.readTree(body).path("keys")) {
+            String kid = jwk.path("kid").asText(null);
+            if (kid == null || !"sig".equals(jwk.path("use").asText("sig"))) {
+                continue;
+            }
+            try {
+                PublicKey key = switch (jwk.path("kty").asText()) {
+                    case "RSA" -> KeyFactory.getInstance("RSA").generatePublic(
+                            new RSAPublicKeySpec(unsigned(jwk, "n"), unsigned(jwk, "e")));
+                    case "EC" -> "P-256".equals(jwk.path("crv").asText()) ? KeyFactory.getInstance("EC").generatePublic(
+                            new ECPublicKeySpec(new ECPoint(unsigned(jwk, "x"), unsigned(jwk, "y")), p256())) : null;
+                    default -> null;
+                };
+                if (key != null) {
+                    keys.put(kid, key);
+                }
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                LOG.log(System.Logger.Level.WARNING, "Skipping unusable JWK " + kid, e);
+            }
+        }
+        return keys;
+    }
+
+    private static BigInteger unsigned(JsonNode jwk, String field) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path(field).asText()));
+    }
+
+    private static ECParameterSpec p256() throws GeneralSecurityException {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        return parameters.getParameterSpec(ECParameterSpec.class);
+    }
+}
@@ -0,0 +1,12 @@
+package com.premisave.auth.client;
+
+/**
+ * The signing keys could not be fetched and none are cached, so no token can be checked yet.
+ * Unlike {@link InvalidTokenException} this says nothing about the token; callers should answer 503.
+ */
+public class JwksUnavailableException extends RuntimeException {
+
+    public JwksUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
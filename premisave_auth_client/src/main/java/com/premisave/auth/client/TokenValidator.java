@@ -0,0 +1,81 @@
+package com.premisave.auth.client;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+
+import java.net.URI;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Validates Premisave access tokens without calling the auth service per request: signatures are
+ * checked against its published keys, fetched through a {@link JwksKeySource}. Thread-safe; build
+ * one per service and share it.
+ * <p>
+ * Revocation (logout, password change, deactivation) is only visible to the auth service. Local
+ * validation accepts a revoked token until it expires, at most one access-token lifetime.
+ */
+public class TokenValidator {
+
+    public static final String DEFAULT_ISSUER = "premisave-auth";
+
+    private static final Set<String> ALGORITHMS = Set.of(
+            SignatureAlgorithm.RS256.getValue(), SignatureAlgorithm.ES256.getValue());
+
+    private final JwtParser parser;
+
+    public TokenValidator(JwksKeySource keys, String issuer, Duration allowedClockSkew) {
+        this.parser = Jwts.parserBuilder()
+                .requireIssuer(issuer)
+                .setAllowedClockSkewSeconds(allowedClockSkew.toSeconds())
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        // Never let the token pick a symmetric algorithm to be checked with a public key
+                        if (!ALGORITHMS.contains(header.getAlgorithm())) {
+                            throw new InvalidTokenException("Unsupported algorithm " + header.getAlgorithm());
+                        }
+                        String kid = header.getKeyId();
+                        Key key = kid == null ? null : keys.key(kid);
+                        if (key == null) {
+                            throw new InvalidTokenException("Unknown signing key " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Validator for the auth service at {@code authServiceUrl}, e.g. {@code https://auth.premisave.com}.
+     */
+    public static TokenValidator forAuthService(URI authServiceUrl) {
+        return new TokenValidator(JwksKeySource.of(authServiceUrl.resolve("/.well-known/jwks.json")),
+                DEFAULT_ISSUER, Duration.ofSeconds(30));
+    }
+
+    /**
+     * @param token the compact token, with or without a {@code Bearer } prefix
+     * @throws InvalidTokenException if the token isn't a live token from the auth service
+     * @throws JwksUnavailableException if no keys could be fetched to check it with
+     */
+    public VerifiedToken validate(String token) {
+        if (token == null || token.isBlank()) {
+            throw new InvalidTokenException("Missing token");
+        }
+        String compact = token.startsWith("Bearer ") ? token.substring(7) : token;
+        try {
+            return VerifiedToken.of(parser.parseClaimsJws(compact).getBody());
+        } catch (InvalidTokenException | JwksUnavailableException e) {
+            throw e;
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid token: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.premisave.auth.client;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * The caller an access token was issued to, as of when it was issued.
+ *
+ * @param claims every claim, for anything not lifted into a field
+ */
+public record VerifiedToken(String userId, String email, String role, boolean active, boolean verified,
+                            String tokenId, Instant expiresAt, Claims claims) {
+
+    static VerifiedToken of(Claims claims) {
+        return new VerifiedToken(
+                claims.get("uid", String.class),
+                claims.getSubject(),
+                claims.get("role", String.class),
+                Boolean.TRUE.equals(claims.get("active", Boolean.class)),
+                Boolean.TRUE.equals(claims.get("verified", Boolean.class)),
+                claims.getId(),
+                claims.getExpiration().toInstant(),
+                claims);
+    }
+}
@@ -0,0 +1,211 @@
+package com.premisave.auth.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenValidatorTest {
+
+	private final Map<String, KeyPair> published = new LinkedHashMap<>();
+	private final AtomicInteger fetches = new AtomicInteger();
+	private volatile boolean unavailable;
+	private HttpServer server;
+	private URI jwksUri;
+	private TokenValidator validator;
+
+	@BeforeEach
+	void startServer() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/.well-known/jwks.json", exchange -> {
+			fetches.incrementAndGet();
+			if (unavailable) {
+				sleep(200);
+				exchange.sendResponseHeaders(503, -1);
+				exchange.close();
+				return;
+			}
+			byte[] body = jwks().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Cache-Control", "public, max-age=300");
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.start();
+
+		jwksUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/.well-known/jwks.json");
+		JwksKeySource keys = new JwksKeySource(jwksUri, HttpClient.newHttpClient(), Duration.ofMinutes(5),
+				Duration.ZERO, Clock.systemUTC());
+		validator = new TokenValidator(keys, TokenValidator.DEFAULT_ISSUER, Duration.ofSeconds(30));
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	void validatesLocallyAndFetchesKeysOnce() throws Exception {
+		published.put("2026-10", ecKeyPair());
+
+		for (int i = 0; i < 100; i++) {
+			VerifiedToken verified = validator.validate("Bearer " + token("2026-10", TokenValidator.DEFAULT_ISSUER));
+			assertThat(verified.email()).isEqualTo("jane@example.com");
+			assertThat(verified.userId()).isEqualTo("u-1");
+			assertThat(verified.role()).isEqualTo("CLIENT");
+			assertThat(verified.active()).isTrue();
+		}
+		assertThat(fetches).hasValue(1);
+	}
+
+	@Test
+	void refetchesForKeyPublishedAfterRotation() throws Exception {
+		published.put("2026-10", ecKeyPair());
+		validator.validate(token("2026-10", TokenValidator.DEFAULT_ISSUER));
+
+		published.put("2026-11", ecKeyPair());
+		assertThat(validator.validate(token("2026-11", TokenValidator.DEFAULT_ISSUER)).email())
+				.isEqualTo("jane@example.com");
+		assertThat(fetches).hasValue(2);
+	}
+
+	@Test
+	void rejectsForeignIssuerAndUnknownKeys() throws Exception {
+		published.put("2026-10", ecKeyPair());
+
+		assertThatThrownBy(() -> validator.validate(token("2026-10", "someone-else")))
+				.isInstanceOf(InvalidTokenException.class);
+		assertThatThrownBy(() -> validator.validate(token("2026-10", TokenValidator.DEFAULT_ISSUER) + "x"))
+				.isInstanceOf(InvalidTokenException.class);
+
+		KeyPair unpublished = ecKeyPair();
+		String forged = Jwts.builder().setHeaderParam("kid", "forged").setIssuer(TokenValidator.DEFAULT_ISSUER)
+				.setSubject("jane@example.com").setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(unpublished.getPrivate(), SignatureAlgorithm.ES256).compact();
+		assertThatThrownBy(() -> validator.validate(forged)).isInstanceOf(InvalidTokenException.class);
+	}
+
+	@Test
+	void failedFirstFetchIsSharedUntilTheRefreshIntervalPasses() throws Exception {
+		unavailable = true;
+		AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-10-17T00:00:00Z"));
+		Clock clock = new Clock() {
+			@Override
+			public ZoneId getZone() {
+				return ZoneOffset.UTC;
+			}
+
+			@Override
+			public Clock withZone(ZoneId zone) {
+				return this;
+			}
+
+			@Override
+			public Instant instant() {
+				return now.get();
+			}
+		};
+		JwksKeySource keys = new JwksKeySource(jwksUri, HttpClient.newHttpClient(), Duration.ofMinutes(5),
+				Duration.ofSeconds(30), clock);
+
+		// Concurrent callers while the auth service is down: one fetch, and all of them refused
+		ExecutorService callers = Executors.newFixedThreadPool(8);
+		List<Future<?>> calls = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			calls.add(callers.submit(() -> keys.key("2026-10")));
+		}
+		for (Future<?> call : calls) {
+			assertThatThrownBy(call::get).hasCauseInstanceOf(JwksUnavailableException.class);
+		}
+		callers.shutdown();
+		assertThat(fetches).hasValue(1);
+		assertThatThrownBy(() -> keys.key("2026-10")).isInstanceOf(JwksUnavailableException.class);
+		assertThat(fetches).hasValue(1);
+
+		unavailable = false;
+		published.put("2026-10", ecKeyPair());
+		now.set(now.get().plusSeconds(30));
+		assertThat(keys.key("2026-10")).isEqualTo(published.get("2026-10").getPublic());
+		assertThat(fetches).hasValue(2);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private String token(String kid, String issuer) {
+		return Jwts.builder()
+				.setHeaderParam("kid", kid)
+				.setIssuer(issuer)
+				.setSubject("jane@example.com")
+				.setId("jti-1")
+				.claim("uid", "u-1")
+				.claim("role", "CLIENT")
+				.claim("active", true)
+				.claim("verified", true)
+				.setIssuedAt(new Date())
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(published.get(kid).getPrivate(), SignatureAlgorithm.ES256)
+				.compact();
+	}
+
+	private String jwks() {
+		List<String> keys = new ArrayList<>();
+		published.forEach((kid, pair) -> {
+			ECPublicKey key = (ECPublicKey) pair.getPublic();
+			keys.add("{\"kid\":\"" + kid + "\",\"use\":\"sig\",\"alg\":\"ES256\",\"kty\":\"EC\",\"crv\":\"P-256\","
+					+ "\"x\":\"" + coordinate(key.getW().getAffineX()) + "\",\"y\":\""
+					+ coordinate(key.getW().getAffineY()) + "\"}");
+		});
+		return "{\"keys\":[" + String.join(",", keys) + "]}";
+	}
+
+	private static String coordinate(BigInteger value) {
+		byte[] bytes = value.toByteArray();
+		byte[] fixed = new byte[32];
+		int length = Math.min(bytes.length, 32);
+		System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+	}
+
+	private static KeyPair ecKeyPair() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec("secp256r1"));
+		return generator.generateKeyPair();
+	}
+}
@@ -0,0 +1,182 @@
+package com.premisave.auth.benchmark;
+
+import com.premisave.auth.dto.AuthRequest;
+import com.premisave.auth.dto.AuthResponse;
+import com.premisave.auth.entity.User;
+import com.premisave.auth.mapper.UserMapper;
+import com.premisave.auth.enums.Role;
+import com.premisave.auth.repository.UserRepository;
+import com.premisave.auth.security.CredentialsAuthenticator;
+import com.premisave.auth.security.JwtService;
+import com.premisave.auth.security.LoginAttemptTracker;
+import com.premisave.auth.security.RefreshSessionStore;
+import com.premisave.auth.security.TokenRevocationService;
+import com.premisave.auth.security.UserDetailsServiceImpl;
+import com.premisave.auth.service.AuthService;
+import com.premisave.auth.service.EmailService;
+import com.premisave.auth.service.EmailTemplateService;
+import com.premisave.auth.service.SmtpTransportPool;
+import com.premisave.auth.service.TokenService;
+import com.premisave.auth.service.UserCache;
+import com.premisave.auth.util.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileCopyUtils;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Signin through a real {@link AuthService} wired to in-memory fakes, and email rendering.
+ * {@code signinWrongPassword} pays for the password hash; {@code signinLockedOut} is the same
+ * request once the account is locked, refused on the failure counter alone.
+ * {@code legacyRenderActivationTemplate} reproduces the old read-from-disk plus
+ * one-replace-per-placeholder approach for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthServiceBenchmark {
+
+    private static final String PASSWORD = "Sup3r$ecretPassw0rd!";
+    private static final String ACTIVATION_TEMPLATE = "templates/activation-email.html";
+
+    private AuthService authService;
+    private AuthService lockedOutAuthService;
+    private EmailTemplateService emailTemplateService;
+    private Map<String, String> templateData;
+    private AuthRequest signinRequest;
+    private AuthRequest wrongPasswordRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        UserRepository userRepository = InMemoryFakes.userRepository();
+        User user = Fixtures.user(Role.CLIENT);
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+        userRepository.save(user);
+
+        // Signin only writes through, so no invalidation channel is needed
+        UserCache userCache = new UserCache(userRepository, new UserMapper(), InMemoryFakes.redisTemplate(), null,
+                Duration.ofMinutes(15), Duration.ofMinutes(1), 1000);
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(userRepository, userCache);
+        // The fake returns null for every script, i.e. no recorded failures
+        CredentialsAuthenticator authenticator = new CredentialsAuthenticator(userRepository, passwordEncoder,
+                userDetailsService, new LoginAttemptTracker(InMemoryFakes.scriptingRedisTemplate(), 5, Duration.ofMinutes(15)));
+        CredentialsAuthenticator lockedOutAuthenticator = new CredentialsAuthenticator(userRepository, passwordEncoder,
+                userDetailsService, new LoginAttemptTracker(InMemoryFakes.scriptingRedisTemplate(List.of(5L, 600_000L)),
+                        5, Duration.ofMinutes(15)));
+
+        emailTemplateService = new EmailTemplateService(new DefaultResourceLoader());
+        ReflectionTestUtils.setField(emailTemplateService, "activationEmailPath", ACTIVATION_TEMPLATE);
+        ReflectionTestUtils.setField(emailTemplateService, "resetPasswordEmailPath", "templates/reset-password-email.html");
+        emailTemplateService.init();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        SmtpTransportPool transportPool = new SmtpTransportPool(mailSender, 1,
+                Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofSeconds(30));
+
+        RefreshSessionStore sessionStore = new RefreshSessionStore(InMemoryFakes.scriptingRedisTemplate(),
+                Duration.ofDays(30).toMillis(), Duration.ofSeconds(10));
+        JwtService jwtService = JwtServiceBenchmark.jwtService();
+        Function<CredentialsAuthenticator, AuthService> authServiceWith = credentialsAuthenticator -> new AuthService(
+                userRepository,
+                new TokenService(InMemoryFakes.tokenRepository(), null, null, "mongo", Duration.ofHours(24)),
+                passwordEncoder,
+                jwtService,
+                credentialsAuthenticator,
+                new EmailService(mailSender, new RabbitTemplate(), transportPool, 4, 1000, 2.0, 30000),
+                emailTemplateService,
+                userCache,
+                sessionStore,
+                new TokenRevocationService(InMemoryFakes.scriptingRedisTemplate(), sessionStore, jwtService,
+                        JwtServiceBenchmark.EXPIRATION, 1000, 0.01),
+                // Effectively unlimited, so the benchmark measures the bucket round trip rather than rejections
+                new RateLimiter(InMemoryFakes.rateLimitProxyManager(), new MockEnvironment(), Integer.MAX_VALUE, 1000));
+        authService = authServiceWith.apply(authenticator);
+        lockedOutAuthService = authServiceWith.apply(lockedOutAuthenticator);
+        for (AuthService service : List.of(authService, lockedOutAuthService)) {
+            ReflectionTestUtils.setField(service, "frontendUrl", "http://localhost:3000");
+            service.init();
+        }
+
+        templateData = new HashMap<>();
+        templateData.put("activationLink", "http://localhost:3000/verify/0b5c8f0e-4f3e-4a59-9a43-5d2f1c7e9b11");
+        templateData.put("supportEmail", "support@premisave.com");
+        templateData.put("currentYear", "2026");
+
+        signinRequest = new AuthRequest();
+        signinRequest.setEmail(user.getEmail());
+        signinRequest.setPassword(PASSWORD);
+        wrongPasswordRequest = new AuthRequest();
+        wrongPasswordRequest.setEmail(user.getEmail());
+        wrongPasswordRequest.setPassword(PASSWORD + "?");
+    }
+
+    @Benchmark
+    public String renderActivationTemplate() {
+        return emailTemplateService.render(ACTIVATION_TEMPLATE, templateData);
+    }
+
+    @Benchmark
+    public String legacyRenderActivationTemplate() throws Exception {
+        String template;
+        try (Reader reader = new InputStreamReader(
+                new ClassPathResource(ACTIVATION_TEMPLATE).getInputStream(), StandardCharsets.UTF_8)) {
+            template = FileCopyUtils.copyToString(reader);
+        }
+        for (Map.Entry<String, String> entry : templateData.entrySet()) {
+            template = template.replace("{{" + entry.getKey() + "}}", entry.getValue());
+        }
+        return template;
+    }
+
+    @Benchmark
+    public AuthResponse signin() {
+        return authService.signin(signinRequest);
+    }
+
+    @Benchmark
+    public Exception signinWrongPassword() {
+        return refusal(authService, wrongPasswordRequest);
+    }
+
+    @Benchmark
+    public Exception signinLockedOut() {
+        return refusal(lockedOutAuthService, wrongPasswordRequest);
+    }
+
+    private static Exception refusal(AuthService service, AuthRequest request) {
+        try {
+            service.signin(request);
+        } catch (RuntimeException e) {
+            return e;
+        }
+        throw new IllegalStateException("Sign-in was expected to be refused");
+    }
+}
@@ -0,0 +1,89 @@
+package com.premisave.auth.benchmark;
+
+import com.premisave.auth.config.RedisConfig;
+import com.premisave.auth.dto.UserDto;
+import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.Role;
+import com.premisave.auth.mapper.UserMapper;
+import com.premisave.auth.util.CompactRedisSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding a cached user: the full entity as typed JSON (what signin used to cache),
+ * a {@link UserDto} as typed JSON, and a {@link UserDto} through {@link CompactRedisSerializer}.
+ * Payload sizes are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheSerializationBenchmark {
+
+    private RedisSerializer<Object> json;
+    private CompactRedisSerializer cbor;
+    private User entity;
+    private UserDto dto;
+    private byte[] entityJsonBytes;
+    private byte[] dtoJsonBytes;
+    private byte[] dtoCborBytes;
+
+    @Setup
+    @SuppressWarnings({ "deprecation", "removal" })
+    public void setUp() {
+        json = RedisSerializer.json();
+        cbor = new CompactRedisSerializer(CompactRedisSerializer.Format.CBOR, json, RedisConfig.CACHE_SCHEMAS);
+        entity = Fixtures.user(Role.HOME_OWNER);
+        entity.setCreatedBy(Fixtures.user(Role.ADMIN));
+        dto = new UserMapper().toDto(entity);
+
+        entityJsonBytes = json.serialize(entity);
+        dtoJsonBytes = json.serialize(dto);
+        dtoCborBytes = cbor.serialize(dto);
+        System.out.printf("%nPayload bytes: entity JSON %d, dto JSON %d, dto CBOR %d%n",
+                entityJsonBytes.length, dtoJsonBytes.length, dtoCborBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodeEntityJson() {
+        return json.serialize(entity);
+    }
+
+    @Benchmark
+    public byte[] encodeDtoJson() {
+        return json.serialize(dto);
+    }
+
+    @Benchmark
+    public byte[] encodeDtoCbor() {
+        return cbor.serialize(dto);
+    }
+
+    @Benchmark
+    public Object decodeEntityJson() {
+        return json.deserialize(entityJsonBytes);
+    }
+
+    @Benchmark
+    public Object decodeDtoJson() {
+        return json.deserialize(dtoJsonBytes);
+    }
+
+    @Benchmark
+    public Object decodeDtoCbor() {
+        return cbor.deserialize(dtoCborBytes);
+    }
+}
@@ -0,0 +1,35 @@
+package com.premisave.auth.benchmark;
+
+import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.Language;
+import com.premisave.auth.enums.Role;
+
+/**
+ * Sample entities shared by the benchmarks.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static User user(Role role) {
+        User user = new User();
+        user.setId("65f1c2a9e4b0a1b2c3d4e5f6");
+        user.setDisplayUsername("jane_doe");
+        user.setFirstName("Jane");
+        user.setMiddleName("Wanjiru");
+        user.setLastName("Doe");
+        user.setEmail("jane.doe@premisave.com");
+        user.setPhoneNumber("+254700000000");
+        user.setAddress1("14 Riverside Drive");
+        user.setAddress2("Westlands");
+        user.setCountry("Kenya");
+        user.setLanguage(Language.ENGLISH);
+        user.setProfilePictureUrl("https://res.cloudinary.com/premisave/image/upload/v1/premisave/profile-photos/user.jpg");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3bmw5lOEOz5rN5bSgrTeW7u");
+        user.setRole(role);
+        user.setActive(true);
+        user.setVerified(true);
+        return user;
+    }
+}
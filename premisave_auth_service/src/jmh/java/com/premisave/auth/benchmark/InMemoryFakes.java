@@ -0,0 +1,187 @@
+package com.premisave.auth.benchmark;
+
+import com.premisave.auth.entity.Token;
+import com.premisave.auth.entity.User;
+import com.premisave.auth.repository.TokenRepository;
+import com.premisave.auth.repository.UserRepository;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory stand-ins for MongoDB repositories and Redis so the benchmarks run offline.
+ * Only the operations exercised by the benchmarked code paths are implemented.
+ */
+final class InMemoryFakes {
+
+    private InMemoryFakes() {
+    }
+
+    static UserRepository userRepository() {
+        Map<String, User> byId = new ConcurrentHashMap<>();
+        return proxy(UserRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "save" -> {
+                User user = (User) args[0];
+                if (user.getId() == null) {
+                    user.setId(UUID.randomUUID().toString());
+                }
+                byId.put(user.getId(), user);
+                yield user;
+            }
+            case "findById" -> Optional.ofNullable(byId.get((String) args[0]));
+            case "findAll" -> new ArrayList<>(byId.values());
+            case "findByEmail" -> byId.values().stream().filter(u -> args[0].equals(u.getEmail())).findFirst();
+            case "findByUsername" -> byId.values().stream().filter(u -> args[0].equals(u.getDisplayUsername())).findFirst();
+            case "existsByEmail" -> byId.values().stream().anyMatch(u -> args[0].equals(u.getEmail()));
+            case "existsByUsername" -> byId.values().stream().anyMatch(u -> args[0].equals(u.getDisplayUsername()));
+            case "delete" -> byId.remove(((User) args[0]).getId());
+            case "recordLogin" -> {
+                User user = byId.get((String) args[0]);
+                if (user != null) {
+                    user.setLastLoginAt((LocalDateTime) args[1]);
+                }
+                yield user != null;
+            }
+            default -> objectMethod(proxy, method.getName(), args);
+        });
+    }
+
+    static TokenRepository tokenRepository() {
+        Map<String, Token> byToken = new ConcurrentHashMap<>();
+        return proxy(TokenRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "save" -> {
+                Token token = (Token) args[0];
+                byToken.put(token.getToken(), token);
+                yield token;
+            }
+            case "findByToken" -> Optional.ofNullable(byToken.get((String) args[0]));
+            default -> objectMethod(proxy, method.getName(), args);
+        });
+    }
+
+    /**
+     * A template whose value operations and deletes go to a map instead of a Redis connection.
+     */
+    static RedisTemplate<String, Object> redisTemplate() {
+        Map<String, Object> store = new ConcurrentHashMap<>();
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, Object> valueOps = proxy(ValueOperations.class, (proxy, method, args) -> switch (method.getName()) {
+            case "set" -> {
+                store.put((String) args[0], args[1]);
+                yield null;
+            }
+            case "get" -> store.get((String) args[0]);
+            default -> objectMethod(proxy, method.getName(), args);
+        });
+        return new RedisTemplate<>() {
+            @Override
+            public ValueOperations<String, Object> opsForValue() {
+                return valueOps;
+            }
+
+            @Override
+            public Boolean delete(String key) {
+                return store.remove(key) != null;
+            }
+        };
+    }
+
+    /**
+     * A template whose scripts succeed without doing anything, for code paths that only write through scripts.
+     */
+    static StringRedisTemplate scriptingRedisTemplate() {
+        return scriptingRedisTemplate(null);
+    }
+
+    /**
+     * A template whose every script returns {@code result}.
+     */
+    @SuppressWarnings("unchecked")
+    static StringRedisTemplate scriptingRedisTemplate(Object result) {
+        return new StringRedisTemplate() {
+            @Override
+            public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+                return (T) result;
+            }
+        };
+    }
+
+    /**
+     * Bucket state kept in a map, going through the same compare-and-swap protocol as the Lettuce proxy manager.
+     */
+    static ProxyManager<String> rateLimitProxyManager() {
+        Map<String, byte[]> store = new ConcurrentHashMap<>();
+        return new AbstractCompareAndSwapBasedProxyManager<>(ClientSideConfig.getDefault()) {
+            @Override
+            protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+                return new CompareAndSwapOperation() {
+                    @Override
+                    public Optional<byte[]> getStateData(Optional<Long> timeoutNanos) {
+                        return Optional.ofNullable(store.get(key));
+                    }
+
+                    @Override
+                    public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState,
+                                                  Optional<Long> timeoutNanos) {
+                        return originalData == null
+                                ? store.putIfAbsent(key, newData) == null
+                                : store.replace(key, originalData, newData);
+                    }
+                };
+            }
+
+            @Override
+            protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+                throw new UnsupportedOperationException("async is not faked");
+            }
+
+            @Override
+            public void removeProxy(String key) {
+                store.remove(key);
+            }
+
+            @Override
+            protected CompletableFuture<Void> removeAsync(String key) {
+                store.remove(key);
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public boolean isAsyncModeSupported() {
+                return false;
+            }
+        };
+    }
+
+    private static Object objectMethod(Object proxy, String name, Object[] args) {
+        return switch (name) {
+            case "toString" -> "InMemoryFake";
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> throw new UnsupportedOperationException(name + " is not faked");
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(InMemoryFakes.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,99 @@
+package com.premisave.auth.benchmark;
+
+import com.premisave.auth.dto.IntrospectionRequest;
+import com.premisave.auth.dto.IntrospectionResponse;
+import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.Role;
+import com.premisave.auth.mapper.UserMapper;
+import com.premisave.auth.repository.UserRepository;
+import com.premisave.auth.security.JwtService;
+import com.premisave.auth.security.RefreshSessionStore;
+import com.premisave.auth.security.TokenIntrospectionService;
+import com.premisave.auth.security.TokenRevocationService;
+import com.premisave.auth.security.UserDetailsServiceImpl;
+import com.premisave.auth.service.UserCache;
+import com.premisave.auth.util.BloomFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch introspection as the endpoint runs it: decode the JSON request, introspect every token,
+ * encode the JSON response. Scores are requests per second; multiply by {@code batchSize} for
+ * tokens per second. {@code warm} answers from the result cache, as for a gateway seeing the same
+ * tokens repeatedly; {@code cold} has the cache disabled, so every token's signature is verified.
+ * Revocation checks run against an empty filter, i.e. no token is revoked.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class IntrospectionBenchmark {
+
+    @Param({ "1", "16", "256" })
+    public int batchSize;
+
+    @Param({ "warm", "cold" })
+    public String cache;
+
+    private JsonMapper jsonMapper;
+    private TokenIntrospectionService introspectionService;
+    private byte[] requestBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        JwtService jwtService = JwtServiceBenchmark.jwtService();
+        RefreshSessionStore sessionStore = new RefreshSessionStore(InMemoryFakes.scriptingRedisTemplate(),
+                Duration.ofDays(30).toMillis(), Duration.ofSeconds(10));
+        TokenRevocationService revocationService = new TokenRevocationService(InMemoryFakes.scriptingRedisTemplate(),
+                sessionStore, jwtService, JwtServiceBenchmark.EXPIRATION, 100_000, 0.001);
+        // State after the startup rebuild found nothing revoked
+        ReflectionTestUtils.setField(revocationService, "filter", new BloomFilter(100_000, 0.001));
+        // Every token carries a user id, so the user lookup for legacy tokens never runs
+        UserRepository userRepository = InMemoryFakes.userRepository();
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(userRepository, new UserCache(userRepository,
+                new UserMapper(), InMemoryFakes.redisTemplate(), null, Duration.ofMinutes(15), Duration.ofMinutes(1), 1000));
+        introspectionService = new TokenIntrospectionService(jwtService, revocationService, userDetailsService,
+                cache.equals("warm") ? 100_000 : 0);
+
+        User user = Fixtures.user(Role.CLIENT);
+        List<String> tokens = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            tokens.add(jwtService.generateToken(user));
+        }
+        IntrospectionRequest request = new IntrospectionRequest();
+        request.setTokens(tokens);
+
+        jsonMapper = JsonMapper.builder().build();
+        requestBody = jsonMapper.writeValueAsBytes(request);
+        byte[] responseBody = introspect();
+        System.out.printf("%nBatch of %d: request %d bytes, response %d bytes%n",
+                batchSize, requestBody.length, responseBody.length);
+    }
+
+    @Benchmark
+    public byte[] introspect() {
+        IntrospectionRequest request = jsonMapper.readValue(requestBody, IntrospectionRequest.class);
+        return jsonMapper.writeValueAsBytes(
+                new IntrospectionResponse(introspectionService.introspect(request.getTokens())));
+    }
+}
@@ -0,0 +1,133 @@
+package com.premisave.auth.benchmark;
+
+import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.Role;
+import com.premisave.auth.security.JwtService;
+import com.premisave.auth.security.SigningKeyRing;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and validation throughput. The {@code legacy*} benchmarks reproduce the
+ * previous implementation (key decoded and parser built per call, two parses per validation)
+ * so the before/after numbers come out of the same run. Legacy tokens are HS256; current ones are
+ * signed with a generated key of each supported algorithm, so the gap includes the asymmetric cost.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    static final String SECRET = "eW91ci12ZXJ5LXNlY3VyZS1qd3Qtc2VjcmV0LWtleS0zMi1ieXRlcyE=";
+    static final long EXPIRATION = 15 * 60 * 1000L;
+
+    // Signing algorithm of the current implementation; the legacy benchmarks are always HS256
+    @Param({ "RS256", "ES256" })
+    public String algorithm;
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+    private String legacyToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        jwtService = jwtService(algorithm);
+        user = Fixtures.user(Role.CLIENT);
+        token = jwtService.generateToken(user);
+        legacyToken = legacyGenerateToken();
+    }
+
+    static JwtService jwtService() throws Exception {
+        return jwtService("RS256");
+    }
+
+    static JwtService jwtService(String algorithm) throws Exception {
+        KeyPairGenerator generator;
+        if (algorithm.equals("ES256")) {
+            generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+        } else {
+            generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+        }
+        KeyPair pair = generator.generateKeyPair();
+        SigningKeyRing keyRing = new SigningKeyRing(
+                List.of(new SigningKeyRing.SigningKey("bench", pair.getPrivate(), pair.getPublic(), Instant.EPOCH)),
+                Duration.ofMillis(EXPIRATION), Clock.systemUTC());
+        return new JwtService(keyRing, "premisave-auth", EXPIRATION, "", "");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    public String legacyGenerateToken() {
+        return Jwts.builder()
+                .setClaims(new HashMap<>())
+                .setSubject(user.getUsername())
+                .setIssuedAt(new Date(System.currentTimeMillis()))
+                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
+                .signWith(legacySignInKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public boolean legacyValidateToken() {
+        String username = legacyParse(legacyToken).getSubject();
+        return username.equals(user.getUsername()) && !legacyParse(legacyToken).getExpiration().before(new Date());
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(legacySignInKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static Key legacySignInKey() {
+        byte[] keyBytes = Decoders.BASE64.decode(SECRET);
+        byte[] sized = new byte[32];
+        System.arraycopy(keyBytes, 0, sized, 0, Math.min(keyBytes.length, 32));
+        return Keys.hmacShaKeyFor(sized);
+    }
+}
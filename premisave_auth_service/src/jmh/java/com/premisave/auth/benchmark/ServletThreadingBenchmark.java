@@ -0,0 +1,132 @@
+package com.premisave.auth.benchmark;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the embedded Tomcat connector with platform worker threads (the default pool of
+ * 200, as in server.tomcat.threads.max) against virtual threads (spring.threads.virtual.enabled).
+ * 400 concurrent clients hit a handler that blocks for {@code blockMillis}, standing in for a
+ * Mongo, Redis or SMTP round trip. Throughput mode gives requests per millisecond; sample mode
+ * gives the latency distribution including p0.99.
+ * <p>
+ * {@code pinned} blocks inside a {@code synchronized} block, which on JDK 21 holds the carrier
+ * thread and shows what an unguarded monitor does to the virtual-thread configuration.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServletThreadingBenchmark {
+
+    private static final int PLATFORM_MAX_THREADS = 200;
+
+    @Param({ "platform", "virtual" })
+    public String threads;
+
+    @Param({ "io", "pinned" })
+    public String handler;
+
+    @Param({ "20" })
+    public int blockMillis;
+
+    private Tomcat tomcat;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("tomcat-bench").toString());
+
+        Connector connector = new Connector();
+        connector.setPort(0);
+        AbstractHttp11Protocol<?> protocol = (AbstractHttp11Protocol<?>) connector.getProtocolHandler();
+        protocol.setMaxKeepAliveRequests(-1);
+        if ("virtual".equals(threads)) {
+            protocol.setExecutor(new VirtualThreadExecutor("tomcat-handler-"));
+        } else {
+            ((AbstractProtocol<?>) protocol).setMaxThreads(PLATFORM_MAX_THREADS);
+        }
+        tomcat.setConnector(connector);
+
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "blocking", new BlockingServlet("pinned".equals(handler), blockMillis));
+        context.addServletMappingDecoded("/work", "blocking");
+        tomcat.start();
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + connector.getLocalPort() + "/work")).build();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        client.close();
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Benchmark
+    public int request() throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static final class BlockingServlet extends HttpServlet {
+
+        private final boolean pinned;
+        private final int blockMillis;
+
+        private BlockingServlet(boolean pinned, int blockMillis) {
+            this.pinned = pinned;
+            this.blockMillis = blockMillis;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            try {
+                if (pinned) {
+                    // Uncontended: only the pinning is measured, not lock contention
+                    synchronized (req) {
+                        Thread.sleep(blockMillis);
+                    }
+                } else {
+                    Thread.sleep(blockMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            resp.setStatus(HttpServletResponse.SC_NO_CONTENT);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.premisave.auth.benchmark;
+
+import com.premisave.auth.dto.UserDto;
+import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.Role;
+import com.premisave.auth.mapper.UserMapper;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User to UserDto conversion: {@link UserMapper} from an entity and from a raw Mongo document,
+ * against a ModelMapper type map configured the way UserManagementService used to.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserMappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private UserMapper userMapper;
+    private User user;
+    private Document document;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.createTypeMap(User.class, UserDto.class)
+                .addMappings(mapper -> {
+                    mapper.map(User::getDisplayUsername, UserDto::setUsername);
+                    mapper.map(User::getEmail, UserDto::setEmail);
+                    mapper.skip(UserDto::setPassword);
+                });
+        userMapper = new UserMapper();
+        user = Fixtures.user(Role.HOME_OWNER);
+
+        document = new Document("_id", new ObjectId(user.getId()))
+                .append("username", user.getDisplayUsername())
+                .append("email", user.getEmail())
+                .append("firstName", user.getFirstName())
+                .append("middleName", user.getMiddleName())
+                .append("lastName", user.getLastName())
+                .append("phoneNumber", user.getPhoneNumber())
+                .append("address1", user.getAddress1())
+                .append("address2", user.getAddress2())
+                .append("country", user.getCountry())
+                .append("language", user.getLanguage().name())
+                .append("role", user.getRole().name())
+                .append("active", user.isActive())
+                .append("verified", user.isVerified())
+                .append("archived", user.isArchived());
+    }
+
+    @Benchmark
+    public UserDto userMapper() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public UserDto userMapperFromDocument() {
+        return userMapper.toDto(document);
+    }
+
+    @Benchmark
+    public UserDto modelMapper() {
+        return modelMapper.map(user, UserDto.class);
+    }
+}
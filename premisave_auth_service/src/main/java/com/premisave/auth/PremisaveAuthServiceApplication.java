@@ -3,8 +3,10 @@ package com.premisave.auth;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PremisaveAuthServiceApplication {
 
     public static void main(String[] args) {
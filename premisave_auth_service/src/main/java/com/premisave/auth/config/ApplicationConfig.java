@@ -1,21 +1,85 @@
 package com.premisave.auth.config;
 
-import org.modelmapper.ModelMapper;
+import com.premisave.auth.security.BoundedPasswordEncoder;
+import com.premisave.auth.security.PasswordHashCalibrator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
+@Slf4j
 public class ApplicationConfig {
 
+    // Existing hashes were created at the BCrypt default of 10; never calibrate below it
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+
+    /**
+     * New hashes use the configured algorithm and are stored with an {id} prefix; stored hashes
+     * of any supported algorithm, including legacy unprefixed BCrypt, still verify and are
+     * rehashed on the next successful login. All hashing goes through the bounded executor.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor passwordHashingExecutor,
+            @Value("${security.password-hashing.algorithm:bcrypt}") String algorithm,
+            @Value("${security.password-hashing.bcrypt.strength:0}") int bcryptStrength,
+            @Value("${security.password-hashing.bcrypt.target-latency:250ms}") Duration bcryptTargetLatency,
+            @Value("${security.password-hashing.pbkdf2.iterations:310000}") int pbkdf2Iterations,
+            @Value("${security.password-hashing.queue-capacity:256}") int queueCapacity,
+            @Value("${security.password-hashing.max-wait:2s}") Duration maxWait,
+            @Value("${security.password-hashing.bulk-threads:0}") int bulkThreads) {
+        int strength = bcryptStrength > 0
+                ? bcryptStrength
+                : PasswordHashCalibrator.bcryptStrength(bcryptTargetLatency, MIN_BCRYPT_STRENGTH, MAX_BCRYPT_STRENGTH);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalArgumentException("Unsupported password hashing algorithm: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        log.info("Hashing new passwords with {} (BCrypt cost {})", algorithm, strength);
+
+        int threads = passwordHashingExecutor.getMaxPoolSize();
+        int capacity = threads + queueCapacity;
+        // Bulk imports get at most half the hashing threads by default, leaving the rest to sign-ins
+        int bulkCapacity = bulkThreads > 0 ? Math.min(bulkThreads, threads) : Math.max(1, threads / 2);
+        return new BoundedPasswordEncoder(delegating, passwordHashingExecutor, capacity, bulkCapacity, maxWait);
     }
 
+    /**
+     * Fixed pool for CPU-heavy password hashing, sized to the cores by default so a burst of
+     * sign-ins cannot take CPU from the rest of the API. Its queue is left unbounded because
+     * {@link BoundedPasswordEncoder} caps how much work is admitted; a bounded queue here would
+     * race with workers that have released their slot but not yet taken the next task.
+     */
     @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
+    public ThreadPoolTaskExecutor passwordHashingExecutor(@Value("${security.password-hashing.threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setTaskDecorator(BoundedPasswordEncoder.hashingThreadMarker());
+        return executor;
     }
-}
\ No newline at end of file
+}
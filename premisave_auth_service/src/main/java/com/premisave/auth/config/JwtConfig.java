@@ -1,16 +1,92 @@
 package com.premisave.auth.config;
 
+import com.premisave.auth.security.SigningKeyRing;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
 
 @Configuration
+@EnableConfigurationProperties(JwtSigningProperties.class)
+@Slf4j
 public class JwtConfig {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    // Verifiers may run slightly ahead of us; keep retired keys published a little longer
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    @Bean
+    public SigningKeyRing signingKeyRing(JwtSigningProperties properties,
+                                         @Value("${jwt.expiration}") long expiration) {
+        Duration retention = Duration.ofMillis(expiration).plus(CLOCK_SKEW);
+        if (properties.keys().isEmpty()) {
+            // A generated key differs per node and per restart: tokens fail on other nodes and everyone
+            // is signed out on every deploy, so it has to be asked for explicitly
+            if (!properties.allowEphemeral()) {
+                throw new IllegalStateException("No jwt.signing.keys configured. Configure a signing key pair, "
+                        + "or set jwt.signing.allow-ephemeral=true for single-node development");
+            }
+            log.warn("No jwt.signing.keys configured; signing with a generated key that other nodes "
+                    + "won't accept and that changes on restart");
+            return SigningKeyRing.ephemeral(retention);
+        }
+        List<SigningKeyRing.SigningKey> keys = properties.keys().stream().map(JwtConfig::load).toList();
+        return new SigningKeyRing(keys, retention, Clock.systemUTC());
+    }
 
-    @Value("${jwt.expiration}")
-    private long expiration;
+    private static SigningKeyRing.SigningKey load(JwtSigningProperties.Key key) {
+        if (key.kid() == null || key.kid().isBlank()) {
+            throw new IllegalArgumentException("Every jwt.signing.keys entry needs a kid");
+        }
+        byte[] publicDer = readPem(key.publicKeyLocation(), "PUBLIC KEY", key.kid());
+        byte[] privateDer = readPem(key.privateKeyLocation(), "PRIVATE KEY", key.kid());
+        for (String algorithm : List.of("RSA", "EC")) {
+            try {
+                KeyFactory factory = KeyFactory.getInstance(algorithm);
+                PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(publicDer));
+                PrivateKey privateKey = factory.generatePrivate(new PKCS8EncodedKeySpec(privateDer));
+                Instant activeFrom = key.activeFrom() == null ? Instant.EPOCH : key.activeFrom();
+                return new SigningKeyRing.SigningKey(key.kid(), privateKey, publicKey, activeFrom);
+            } catch (GeneralSecurityException e) {
+                // Not this algorithm; try the next one
+            }
+        }
+        throw new IllegalArgumentException("Signing key " + key.kid() + " is neither an RSA nor an EC key pair");
+    }
 
-    // Getters if needed
-}
\ No newline at end of file
+    private static byte[] readPem(Resource location, String type, String kid) {
+        if (location == null) {
+            throw new IllegalArgumentException("Signing key " + kid + " needs a " + type.toLowerCase() + " location");
+        }
+        String pem;
+        try {
+            pem = location.getContentAsString(StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read " + location + " for signing key " + kid, e);
+        }
+        String begin = "-----BEGIN " + type + "-----";
+        String end = "-----END " + type + "-----";
+        int start = pem.indexOf(begin);
+        int stop = pem.indexOf(end);
+        if (start < 0 || stop < start) {
+            // Traditional "RSA PRIVATE KEY"/"EC PRIVATE KEY" files need converting with openssl pkcs8 -topk8
+            throw new IllegalArgumentException(location + " is not a PEM " + begin + " file");
+        }
+        return Base64.getMimeDecoder().decode(pem.substring(start + begin.length(), stop));
+    }
+}
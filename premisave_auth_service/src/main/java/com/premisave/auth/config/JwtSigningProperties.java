@@ -0,0 +1,27 @@
+package com.premisave.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Access-token signing keys under {@code jwt.signing.keys}. Each key is a PKCS#8 private key and
+ * its X.509 public key, both PEM. RSA keys sign RS256 and EC P-256 keys sign ES256.
+ *
+ * @param allowEphemeral start without keys, signing with one generated at startup; development only
+ */
+@ConfigurationProperties(prefix = "jwt.signing")
+public record JwtSigningProperties(List<Key> keys, boolean allowEphemeral) {
+
+    public JwtSigningProperties {
+        keys = keys == null ? List.of() : keys;
+    }
+
+    /**
+     * @param activeFrom when the key starts signing; unset means it already has
+     */
+    public record Key(String kid, Resource privateKeyLocation, Resource publicKeyLocation, Instant activeFrom) {
+    }
+}
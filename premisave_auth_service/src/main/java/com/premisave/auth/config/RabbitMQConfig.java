@@ -1,16 +1,110 @@
 package com.premisave.auth.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.amqp.support.converter.JacksonJsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.amqp.autoconfigure.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+@Slf4j
 @Configuration
 public class RabbitMQConfig {
 
     public static final String EMAIL_QUEUE = "email_queue";
+    public static final String EMAIL_RETRY_QUEUE = "email_queue.retry";
+    public static final String EMAIL_DEAD_LETTER_QUEUE = "email_queue.dlq";
 
+    @Value("${email.queue.concurrency:1}")
+    private int concurrency;
+
+    @Value("${email.queue.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${email.queue.prefetch:50}")
+    private int prefetch;
+
+    @Value("${email.queue.batch-size:20}")
+    private int batchSize;
+
+    @Value("${email.queue.batch-receive-timeout-ms:500}")
+    private long batchReceiveTimeoutMs;
+
+    @Value("${email.queue.retry.max-retries:4}")
+    private int maxRetries;
+
+    @Value("${email.queue.retry.initial-interval-ms:1000}")
+    private long retryInitialIntervalMs;
+
+    @Value("${email.queue.retry.multiplier:2.0}")
+    private double retryMultiplier;
+
+    @Value("${email.queue.retry.max-interval-ms:30000}")
+    private long retryMaxIntervalMs;
+
+    // Rejected batches are dead-lettered through the default exchange straight into the DLQ
     @Bean
     public Queue emailQueue() {
-        return new Queue(EMAIL_QUEUE, true);
+        return QueueBuilder.durable(EMAIL_QUEUE)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(EMAIL_DEAD_LETTER_QUEUE)
+                .build();
+    }
+
+    // Holds single emails that failed until their per-message TTL runs out, then returns them to email_queue
+    @Bean
+    public Queue emailRetryQueue() {
+        return QueueBuilder.durable(EMAIL_RETRY_QUEUE)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(EMAIL_QUEUE)
+                .build();
+    }
+
+    @Bean
+    public Queue emailDeadLetterQueue() {
+        return QueueBuilder.durable(EMAIL_DEAD_LETTER_QUEUE).build();
+    }
+
+    // JSON payloads instead of Java serialization; only our DTOs may be deserialized
+    @Bean
+    public MessageConverter messageConverter() {
+        return new JacksonJsonMessageConverter("com.premisave.auth.dto");
+    }
+
+    // Hands the email consumer up to batch-size messages at a time so one SMTP connection serves the batch
+    @Bean
+    public SimpleRabbitListenerContainerFactory emailListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setBatchReceiveTimeout(batchReceiveTimeoutMs);
+        // A batch that keeps failing (e.g. SMTP down) is retried with backoff, then rejected without
+        // requeue so it lands in the DLQ instead of being redelivered in a tight loop
+        MessageBatchRecoverer deadLetter = (messages, cause) -> {
+            log.error("Giving up on batch of {} emails after {} retries, moving it to {}: {}",
+                    messages.size(), maxRetries, EMAIL_DEAD_LETTER_QUEUE, cause.getMessage());
+            throw new AmqpRejectAndDontRequeueException("Email batch failed after retries", cause);
+        };
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .maxRetries(maxRetries)
+                .backOffOptions(retryInitialIntervalMs, retryMultiplier, retryMaxIntervalMs)
+                .recoverer(deadLetter)
+                .build());
+        return factory;
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,13 @@
 package com.premisave.auth.config;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.redis.lettuce.Bucket4jLettuce;
 import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,20 +17,22 @@ import java.time.Duration;
 @Configuration
 public class RateLimiterConfig {
 
-    @Value("${rate-limit.requests-per-minute}")
-    private int requestsPerMinute;
+    // Buckets live in Redis so every replica enforces the same limit
+    @Bean
+    public ProxyManager<String> rateLimitProxyManager(StatefulRedisConnection<String, byte[]> rateLimitRedisConnection) {
+        return Bucket4jLettuce.casBasedBuilder(rateLimitRedisConnection)
+                .expirationAfterWrite(ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(Duration.ofSeconds(10)))
+                .build();
+    }
 
-    @SuppressWarnings("deprecation")
-	@Bean
-    public Bucket rateLimiterBucket(RedisClient redisClient) {
-        Refill refill = Refill.intervally(requestsPerMinute, Duration.ofMinutes(1));
-        Bandwidth bandwidth = Bandwidth.classic(requestsPerMinute, refill);
-        return Bucket.builder().addLimit(bandwidth).build();
+    @Bean(destroyMethod = "close")
+    public StatefulRedisConnection<String, byte[]> rateLimitRedisConnection(RedisClient redisClient) {
+        return redisClient.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
     }
 
-    @Bean
+    @Bean(destroyMethod = "shutdown")
     public RedisClient redisClient(@Value("${spring.data.redis.host}") String host,
                                    @Value("${spring.data.redis.port}") int port) {
         return RedisClient.create("redis://" + host + ":" + port);
     }
-}
\ No newline at end of file
+}
@@ -1,25 +1,69 @@
 package com.premisave.auth.config;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.premisave.auth.dto.UserDto;
+import com.premisave.auth.security.TokenRevocationService;
+import com.premisave.auth.service.UserCache;
+import com.premisave.auth.util.CompactRedisSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 
+import java.util.List;
+
 @Configuration
 public class RedisConfig {
 
+    /**
+     * Everything cached through {@link #redisTemplate}. Type ids are stored in Redis, so never reuse one.
+     */
+    public static final List<CompactRedisSerializer.Schema> CACHE_SCHEMAS = List.of(
+            new CompactRedisSerializer.Schema(1, String.class, 1, null),
+            new CompactRedisSerializer.Schema(2, UserDto.class, 1, UserDtoSchemaV1.class));
+
     @SuppressWarnings({ "deprecation", "removal" })
 	@Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       @Value("${cache.serialization.format:cbor}") String format) {
+        CompactRedisSerializer valueSerializer = new CompactRedisSerializer(
+                CompactRedisSerializer.Format.valueOf(format.toUpperCase()), RedisSerializer.json(), CACHE_SCHEMAS);
+
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         template.setDefaultSerializer(new GenericJackson2JsonRedisSerializer());
         template.setKeySerializer(RedisSerializer.string());
         template.setHashKeySerializer(RedisSerializer.string());
-        template.setValueSerializer(RedisSerializer.json());
-        template.setHashValueSerializer(RedisSerializer.json());
+        template.setValueSerializer(valueSerializer);
+        template.setHashValueSerializer(valueSerializer);
         return template;
     }
-}
\ No newline at end of file
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       UserCache userCache,
+                                                                       TokenRevocationService tokenRevocationService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(userCache, new ChannelTopic(UserCache.INVALIDATION_CHANNEL));
+        container.addMessageListener(tokenRevocationService,
+                new ChannelTopic(TokenRevocationService.REVOCATION_CHANNEL));
+        return container;
+    }
+
+    // Positional array; append new properties at the end, anything else needs version 2
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({ "id", "email", "username", "firstName", "middleName", "lastName", "phoneNumber",
+            "address1", "address2", "country", "language", "profilePictureUrl", "role", "active", "verified",
+            "archived" })
+    @JsonIgnoreProperties("password")
+    abstract static class UserDtoSchemaV1 {
+    }
+}
@@ -1,17 +1,14 @@
 package com.premisave.auth.config;
 
+import com.premisave.auth.security.CredentialsAuthenticator;
 import com.premisave.auth.security.JwtAuthenticationFilter;
-import com.premisave.auth.security.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.AuthenticationProvider;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -24,9 +21,8 @@ import java.util.List;
 @Configuration
 public class SecurityConfig {
 
-    private final UserDetailsServiceImpl userDetailsService;
     private final JwtAuthenticationFilter jwtAuthFilter;
-    private final PasswordEncoder passwordEncoder;
+    private final CredentialsAuthenticator credentialsAuthenticator;
 
     @Value("${frontend.url:http://localhost:3000}")
     private String frontendUrl;
@@ -34,12 +30,10 @@ public class SecurityConfig {
     @Value("${backend.url:http://localhost:8080}")
     private String backendUrl;
 
-    public SecurityConfig(UserDetailsServiceImpl userDetailsService,
-                          JwtAuthenticationFilter jwtAuthFilter,
-                          PasswordEncoder passwordEncoder) {
-        this.userDetailsService = userDetailsService;
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter,
+                          CredentialsAuthenticator credentialsAuthenticator) {
         this.jwtAuthFilter = jwtAuthFilter;
-        this.passwordEncoder = passwordEncoder;
+        this.credentialsAuthenticator = credentialsAuthenticator;
     }
 
     @Bean
@@ -52,13 +46,15 @@ public class SecurityConfig {
                 .requestMatchers("/test/**").permitAll()  // Added for debugging
                 .requestMatchers("/oauth2/**").permitAll()
                 .requestMatchers("/error").permitAll()
+                .requestMatchers("/.well-known/jwks.json").permitAll()
+                .requestMatchers("/internal/**").permitAll()  // API key checked by InternalApiKeyInterceptor
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
-            .authenticationProvider(authenticationProvider())
+            .authenticationProvider(credentialsAuthenticator)
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -79,13 +75,6 @@ public class SecurityConfig {
         return source;
     }
 
-    @Bean
-    public AuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder);
-        return authProvider;
-    }
-
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
@@ -1,23 +1,42 @@
 package com.premisave.auth.config;
 
+import com.premisave.auth.enums.RateLimitedEndpoint;
+import com.premisave.auth.util.InternalApiKeyInterceptor;
+import com.premisave.auth.util.RateLimiter;
 import com.premisave.auth.util.RateLimiterInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
-    private final RateLimiterInterceptor rateLimiterInterceptor;
+    private final RateLimiter rateLimiter;
+    private final List<String> internalApiKeys;
 
-    public WebConfig(RateLimiterInterceptor rateLimiterInterceptor) {
-        this.rateLimiterInterceptor = rateLimiterInterceptor;
+    public WebConfig(RateLimiter rateLimiter,
+                     @Value("${internal.api-keys:}") List<String> internalApiKeys) {
+        this.rateLimiter = rateLimiter;
+        this.internalApiKeys = internalApiKeys;
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        // Apply rate limiting to auth endpoints only
-        registry.addInterceptor(rateLimiterInterceptor)
-                .addPathPatterns("/auth/signup", "/auth/signin", "/auth/reset-password");
+        // Apply rate limiting to auth endpoints only, each with its own per-IP bucket
+        addRateLimit(registry, RateLimitedEndpoint.SIGNIN, "/auth/signin");
+        addRateLimit(registry, RateLimitedEndpoint.SIGNUP, "/auth/signup");
+        addRateLimit(registry, RateLimitedEndpoint.FORGOT_PASSWORD, "/auth/forgot-password");
+        addRateLimit(registry, RateLimitedEndpoint.RESET_PASSWORD, "/auth/reset-password/**");
+        addRateLimit(registry, RateLimitedEndpoint.RESEND_ACTIVATION, "/auth/resend-activation/**");
+
+        registry.addInterceptor(new InternalApiKeyInterceptor(internalApiKeys)).addPathPatterns("/internal/**");
+    }
+
+    private void addRateLimit(InterceptorRegistry registry, RateLimitedEndpoint endpoint, String pathPattern) {
+        registry.addInterceptor(new RateLimiterInterceptor(rateLimiter, endpoint))
+                .addPathPatterns(pathPattern);
     }
-}
\ No newline at end of file
+}
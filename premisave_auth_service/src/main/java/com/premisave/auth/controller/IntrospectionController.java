@@ -0,0 +1,30 @@
+package com.premisave.auth.controller;
+
+import com.premisave.auth.dto.IntrospectionRequest;
+import com.premisave.auth.dto.IntrospectionResponse;
+import com.premisave.auth.security.TokenIntrospectionService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Service-to-service endpoints, authenticated by {@code InternalApiKeyInterceptor} rather than a user token.
+ */
+@RestController
+@RequestMapping("/internal")
+public class IntrospectionController {
+
+    private final TokenIntrospectionService introspectionService;
+
+    public IntrospectionController(TokenIntrospectionService introspectionService) {
+        this.introspectionService = introspectionService;
+    }
+
+    @PostMapping("/introspect")
+    public ResponseEntity<IntrospectionResponse> introspect(@Valid @RequestBody IntrospectionRequest request) {
+        return ResponseEntity.ok(new IntrospectionResponse(introspectionService.introspect(request.getTokens())));
+    }
+}
@@ -0,0 +1,74 @@
+package com.premisave.auth.controller;
+
+import com.premisave.auth.security.SigningKeyRing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Public keys for validating access tokens locally, so other services never need to call back
+ * here. The document only changes when a key is added, activated or retired, so it is rendered
+ * once per key set and served with an ETag and a public max-age.
+ */
+@RestController
+public class JwksController {
+
+    private record Rendered(List<SigningKeyRing.SigningKey> keys, byte[] body, String etag) {
+    }
+
+    private final SigningKeyRing keyRing;
+    private final JsonMapper jsonMapper;
+    private final CacheControl cacheControl;
+
+    private volatile Rendered rendered;
+
+    public JwksController(SigningKeyRing keyRing, JsonMapper jsonMapper,
+                          @Value("${jwt.jwks.max-age:5m}") Duration maxAge) {
+        this.keyRing = keyRing;
+        this.jsonMapper = jsonMapper;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> jwks(WebRequest request) {
+        Rendered current = render();
+        if (request.checkNotModified(current.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).eTag(current.etag()).body(current.body());
+    }
+
+    private Rendered render() {
+        List<SigningKeyRing.SigningKey> keys = keyRing.published();
+        Rendered current = rendered;
+        if (current != null && current.keys().equals(keys)) {
+            return current;
+        }
+        byte[] body = jsonMapper.writeValueAsBytes(
+                Map.of("keys", keys.stream().map(SigningKeyRing.SigningKey::toJwk).toList()));
+        current = new Rendered(keys, body, "\"" + sha256(body) + "\"");
+        rendered = current;
+        return current;
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
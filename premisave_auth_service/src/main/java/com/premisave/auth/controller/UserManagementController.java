@@ -1,13 +1,22 @@
 package com.premisave.auth.controller;
 
+import com.premisave.auth.dto.BulkUserRequest;
 import com.premisave.auth.dto.UserDto;
+import com.premisave.auth.dto.UserPage;
 import com.premisave.auth.dto.UserSearchRequest;
+import com.premisave.auth.service.UserBulkService;
+import com.premisave.auth.service.UserImportService;
 import com.premisave.auth.service.UserManagementService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -16,14 +25,28 @@ import java.util.List;
 public class UserManagementController {
 
     private final UserManagementService userManagementService;
+    private final UserBulkService userBulkService;
+    private final UserImportService userImportService;
 
-    public UserManagementController(UserManagementService userManagementService) {
+    public UserManagementController(UserManagementService userManagementService, UserBulkService userBulkService,
+                                    UserImportService userImportService) {
         this.userManagementService = userManagementService;
+        this.userBulkService = userBulkService;
+        this.userImportService = userImportService;
     }
 
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        return ResponseEntity.ok(userManagementService.getAllUsers());
+    public ResponseEntity<UserPage> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + UserManagementService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(userManagementService.getAllUsers(cursor, limit));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "all") String status) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userManagementService.exportUsers(status));
     }
 
     @GetMapping("/{id}")
@@ -88,6 +111,28 @@ public class UserManagementController {
         return ResponseEntity.ok("User unverified successfully");
     }
 
+    @PostMapping(value = "/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> bulkUpdate(@Valid @RequestBody BulkUserRequest request) {
+        userBulkService.validate(request);
+        StreamingResponseBody body = outputStream -> userBulkService.execute(request, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importUsers(HttpServletRequest request) throws IOException {
+        UserImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                ? UserImportService.Format.NDJSON
+                : UserImportService.Format.CSV;
+        InputStream input = request.getInputStream();
+        StreamingResponseBody body = outputStream -> userImportService.importUsers(format, input, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @PostMapping("/search")
     public ResponseEntity<List<UserDto>> searchUsers(@RequestBody UserSearchRequest request) {
         return ResponseEntity.ok(userManagementService.searchUsers(request));
@@ -116,13 +161,17 @@ public class UserManagementController {
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<UserDto>> getActiveUsers() {
-        return ResponseEntity.ok(userManagementService.getActiveUsers());
+    public ResponseEntity<UserPage> getActiveUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + UserManagementService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(userManagementService.getActiveUsers(cursor, limit));
     }
 
     @GetMapping("/archived")
-    public ResponseEntity<List<UserDto>> getArchivedUsers() {
-        return ResponseEntity.ok(userManagementService.getArchivedUsers());
+    public ResponseEntity<UserPage> getArchivedUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + UserManagementService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(userManagementService.getArchivedUsers(cursor, limit));
     }
 
     @GetMapping("/exists/email/{email}")
@@ -0,0 +1,33 @@
+package com.premisave.auth.dto;
+
+import com.premisave.auth.enums.BulkUserAction;
+import com.premisave.auth.enums.Role;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkUserRequest {
+
+    @NotNull(message = "Action is required")
+    private BulkUserAction action;
+
+    private Role role; // required for CHANGE_ROLE
+
+    // Either explicit ids or a filter; ids win when both are given
+    @Size(max = 10000, message = "At most 10000 ids per request")
+    private List<String> ids;
+
+    private Filter filter;
+
+    @Data
+    public static class Filter {
+        private Boolean active;
+        private Boolean archived;
+        private Boolean verified;
+        private Role role;
+        private String emailDomain; // e.g. "spam.example"
+    }
+}
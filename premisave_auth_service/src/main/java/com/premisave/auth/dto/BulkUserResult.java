@@ -0,0 +1,13 @@
+package com.premisave.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserResult {
+    private String id;
+    private String status; // UPDATED or NOT_FOUND
+}
@@ -0,0 +1,19 @@
+package com.premisave.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailMessage {
+    private String to;
+    private String subject;
+    private String htmlContent;
+    private int failedAttempts; // sends that failed so far; 0 when first queued
+
+    public EmailMessage(String to, String subject, String htmlContent) {
+        this(to, subject, htmlContent, 0);
+    }
+}
@@ -0,0 +1,16 @@
+package com.premisave.auth.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class IntrospectionRequest {
+    public static final int MAX_TOKENS = 1000;
+
+    @NotNull
+    @Size(max = MAX_TOKENS)
+    private List<String> tokens;
+}
@@ -0,0 +1,14 @@
+package com.premisave.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntrospectionResponse {
+    private List<TokenIntrospection> results; // same order as the request's tokens
+}
@@ -0,0 +1,27 @@
+package com.premisave.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.premisave.auth.security.JwtService;
+import io.jsonwebtoken.Claims;
+
+/**
+ * One token's introspection result. Inactive tokens serialize as {@code {"active":false}} and
+ * share a single instance, and active results are cached and reused as they are, so answering a
+ * batch allocates little beyond the result list.
+ *
+ * @param exp expiry in epoch seconds
+ * @param issuedAtMillis issue time in epoch milliseconds, for revocation checks
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TokenIntrospection(boolean active, String sub, String uid, String role, Long exp,
+                                 @JsonIgnore String jti, @JsonIgnore Long issuedAtMillis) {
+
+    public static final TokenIntrospection INACTIVE = new TokenIntrospection(false, null, null, null, null, null, null);
+
+    public static TokenIntrospection of(Claims claims) {
+        return new TokenIntrospection(true, claims.getSubject(), claims.get(JwtService.CLAIM_USER_ID, String.class),
+                claims.get(JwtService.CLAIM_ROLE, String.class), claims.getExpiration().getTime() / 1000,
+                claims.getId(), JwtService.issuedAtMillis(claims));
+    }
+}
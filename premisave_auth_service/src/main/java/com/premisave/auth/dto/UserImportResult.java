@@ -0,0 +1,15 @@
+package com.premisave.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResult {
+    private long row;       // 1-based data row (CSV header not counted)
+    private String email;
+    private String status;  // CREATED, SKIPPED or FAILED
+    private String message; // reason when not CREATED
+}
@@ -1,8 +1,14 @@
 package com.premisave.auth.dto;
 
+import com.premisave.auth.enums.UserSearchMode;
 import lombok.Data;
 
 @Data
 public class UserSearchRequest {
     private String query; // email, name, etc.
-}
\ No newline at end of file
+    private Boolean active;   // optional filter
+    private Boolean archived; // optional filter
+    private UserSearchMode mode = UserSearchMode.PREFIX;
+    private int page = 0;
+    private int size = 20;
+}
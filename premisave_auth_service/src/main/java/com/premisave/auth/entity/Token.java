@@ -5,6 +5,7 @@ import lombok.Data;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
 
@@ -17,9 +18,13 @@ public class Token {
     @Id
     private String id;
 
+    @Indexed(name = "token_unique", unique = true)
     private String token;
     private TokenType type;
+    // TTL index: Mongo deletes the token once this moment has passed
+    @Indexed(name = "expiry_ttl", expireAfter = "0s")
     private LocalDateTime expiryDate;
+    @Indexed(name = "used")
     private boolean used = false;
 
     @DocumentReference
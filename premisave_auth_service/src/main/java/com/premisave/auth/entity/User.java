@@ -10,6 +10,9 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
 import org.springframework.security.core.GrantedAuthority;
@@ -22,6 +25,11 @@ import java.util.List;
 
 @Data
 @Document(collection = "users")
+@CompoundIndexes({
+        @CompoundIndex(name = "status", def = "{'active': 1, 'archived': 1, 'verified': 1}"),
+        @CompoundIndex(name = "search_keys", def = "{'searchKeys': 1}"),
+        @CompoundIndex(name = "status_search_keys", def = "{'active': 1, 'archived': 1, 'searchKeys': 1}")
+})
 public class User implements UserDetails {
 
     @Id
@@ -29,6 +37,7 @@ public class User implements UserDetails {
 
     @Getter
     @Setter
+    @Indexed(name = "username_unique", unique = true, sparse = true) // optional, but unique when set
     private String username;
     
     private String firstName;
@@ -37,6 +46,7 @@ public class User implements UserDetails {
     
     @Getter
     @Setter
+    @Indexed(name = "email_unique", unique = true)
     private String email;
     
     private String phoneNumber;
@@ -46,12 +56,20 @@ public class User implements UserDetails {
     private Language language = Language.ENGLISH;
     private String profilePictureUrl;
     private String password;
+
+    @Indexed(name = "role")
     private Role role;
 
     private boolean active = true;
     private boolean verified = false;
+
+    @Indexed(name = "archived") // findByArchivedTrue is not a prefix of the status index
     private boolean archived = false;
 
+    // Normalized lowercase email, username, names and phone digits for anchored prefix search.
+    // Maintained on every save by UserSearchKeysCallback; never set it directly.
+    private List<String> searchKeys;
+
     // === AUDIT FIELDS ===
     @CreatedDate
     private LocalDateTime createdAt;
@@ -0,0 +1,11 @@
+package com.premisave.auth.enums;
+
+public enum BulkUserAction {
+    ACTIVATE,
+    DEACTIVATE,
+    ARCHIVE,
+    UNARCHIVE,
+    VERIFY,
+    UNVERIFY,
+    CHANGE_ROLE
+}
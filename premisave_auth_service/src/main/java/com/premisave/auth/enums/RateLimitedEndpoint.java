@@ -0,0 +1,20 @@
+package com.premisave.auth.enums;
+
+public enum RateLimitedEndpoint {
+    SIGNIN("signin"),
+    SIGNUP("signup"),
+    FORGOT_PASSWORD("forgot-password"),
+    RESET_PASSWORD("reset-password"),
+    RESEND_ACTIVATION("resend-activation");
+
+    private final String key;
+
+    RateLimitedEndpoint(String key) {
+        this.key = key;
+    }
+
+    // Used in configuration property names and Redis bucket keys
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,6 @@
+package com.premisave.auth.enums;
+
+public enum UserSearchMode {
+    PREFIX,
+    TEXT
+}
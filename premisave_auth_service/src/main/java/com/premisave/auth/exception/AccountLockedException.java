@@ -0,0 +1,22 @@
+package com.premisave.auth.exception;
+
+import java.time.Duration;
+
+public class AccountLockedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public AccountLockedException(Duration retryAfter) {
+        super("Too many failed sign-in attempts. Please try again in " + retryAfterSeconds(retryAfter) + " seconds.");
+        this.retryAfter = retryAfter;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds(retryAfter);
+    }
+
+    private static long retryAfterSeconds(Duration retryAfter) {
+        // Round up so clients never retry while still locked
+        return (retryAfter.toMillis() + 999) / 1000;
+    }
+}
@@ -0,0 +1,8 @@
+package com.premisave.auth.exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException() {
+        super("The service is busy. Please try again shortly.");
+    }
+}
@@ -0,0 +1,17 @@
+package com.premisave.auth.exception;
+
+import com.premisave.auth.util.RateLimiter;
+
+public class RateLimitExceededException extends RuntimeException {
+
+    private final RateLimiter.Decision decision;
+
+    public RateLimitExceededException(RateLimiter.Decision decision) {
+        super("Too many requests. Please try again in " + decision.resetSeconds() + " seconds.");
+        this.decision = decision;
+    }
+
+    public RateLimiter.Decision getDecision() {
+        return decision;
+    }
+}
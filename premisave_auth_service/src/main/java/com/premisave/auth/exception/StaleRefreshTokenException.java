@@ -0,0 +1,12 @@
+package com.premisave.auth.exception;
+
+/**
+ * The refresh token was rotated moments ago by another request, e.g. a second tab, and the
+ * session is still live. The caller should pick up the newer token rather than sign out.
+ */
+public class StaleRefreshTokenException extends InvalidRefreshTokenException {
+
+    public StaleRefreshTokenException() {
+        super("Refresh token was just rotated by another request");
+    }
+}
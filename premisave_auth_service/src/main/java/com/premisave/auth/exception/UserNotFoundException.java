@@ -0,0 +1,8 @@
+package com.premisave.auth.exception;
+
+public class UserNotFoundException extends RuntimeException {
+
+    public UserNotFoundException(String id) {
+        super("User not found: " + id);
+    }
+}
@@ -0,0 +1,90 @@
+package com.premisave.auth.mapper;
+
+import com.premisave.auth.dto.UserDto;
+import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.Language;
+import com.premisave.auth.enums.Role;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.stereotype.Component;
+
+/**
+ * The one User/UserDto mapping. Plain field copies: no reflection and no logging per call.
+ * The password is never copied into a DTO.
+ */
+@Component
+public class UserMapper {
+
+    public UserDto toDto(User user) {
+        UserDto dto = new UserDto();
+        dto.setId(user.getId());
+        dto.setUsername(user.getDisplayUsername()); // not getUsername(), which is the email for Spring Security
+        dto.setEmail(user.getEmail());
+        dto.setFirstName(user.getFirstName());
+        dto.setMiddleName(user.getMiddleName());
+        dto.setLastName(user.getLastName());
+        dto.setPhoneNumber(user.getPhoneNumber());
+        dto.setAddress1(user.getAddress1());
+        dto.setAddress2(user.getAddress2());
+        dto.setCountry(user.getCountry());
+        dto.setLanguage(user.getLanguage());
+        dto.setProfilePictureUrl(user.getProfilePictureUrl());
+        dto.setRole(user.getRole());
+        dto.setActive(user.isActive());
+        dto.setVerified(user.isVerified());
+        dto.setArchived(user.isArchived());
+        return dto;
+    }
+
+    /**
+     * Maps a raw users document, so list queries can skip entity hydration and reference resolution.
+     */
+    public UserDto toDto(Document document) {
+        UserDto dto = new UserDto();
+        Object id = document.get("_id");
+        dto.setId(id instanceof ObjectId objectId ? objectId.toHexString() : (String) id);
+        dto.setUsername(document.getString("username"));
+        dto.setEmail(document.getString("email"));
+        dto.setFirstName(document.getString("firstName"));
+        dto.setMiddleName(document.getString("middleName"));
+        dto.setLastName(document.getString("lastName"));
+        dto.setPhoneNumber(document.getString("phoneNumber"));
+        dto.setAddress1(document.getString("address1"));
+        dto.setAddress2(document.getString("address2"));
+        dto.setCountry(document.getString("country"));
+        String language = document.getString("language");
+        dto.setLanguage(language != null ? Language.valueOf(language) : null);
+        dto.setProfilePictureUrl(document.getString("profilePictureUrl"));
+        String role = document.getString("role");
+        dto.setRole(role != null ? Role.valueOf(role) : null);
+        dto.setActive(document.getBoolean("active", false));
+        dto.setVerified(document.getBoolean("verified", false));
+        dto.setArchived(document.getBoolean("archived", false));
+        return dto;
+    }
+
+    /**
+     * A new user from a DTO. The password is left for the caller to encode.
+     */
+    public User toEntity(UserDto dto) {
+        User user = new User();
+        user.setDisplayUsername(dto.getUsername());
+        user.setEmail(dto.getEmail());
+        user.setFirstName(dto.getFirstName());
+        user.setMiddleName(dto.getMiddleName());
+        user.setLastName(dto.getLastName());
+        user.setPhoneNumber(dto.getPhoneNumber());
+        user.setAddress1(dto.getAddress1());
+        user.setAddress2(dto.getAddress2());
+        user.setCountry(dto.getCountry());
+        if (dto.getLanguage() != null) {
+            user.setLanguage(dto.getLanguage());
+        }
+        user.setProfilePictureUrl(dto.getProfilePictureUrl());
+        user.setRole(dto.getRole());
+        user.setActive(dto.isActive());
+        user.setVerified(dto.isVerified());
+        user.setArchived(dto.isArchived());
+        return user;
+    }
+}
@@ -0,0 +1,151 @@
+package com.premisave.auth.repository;
+
+import com.premisave.auth.entity.Token;
+import com.premisave.auth.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the indexes declared on {@link User} and {@link Token} at startup and reports any
+ * that are missing, fail to build, or are slow to build. It then explains each hot lookup
+ * and warns when one would fall back to a collection scan.
+ */
+@Component
+@Slf4j
+public class MongoIndexVerifier {
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(User.class, Token.class);
+
+    /**
+     * Filters issued by the repository methods on the signin, JWT and verification paths,
+     * written with the field names Mongo stores.
+     */
+    static final Map<String, HotQuery> HOT_QUERIES = new LinkedHashMap<>();
+
+    static {
+        HOT_QUERIES.put("UserRepository.findByEmail",
+                new HotQuery(User.class, new Document("email", "user@example.com")));
+        HOT_QUERIES.put("UserRepository.findByUsername",
+                new HotQuery(User.class, new Document("username", "user")));
+        HOT_QUERIES.put("UserRepository.findByRole",
+                new HotQuery(User.class, new Document("role", "ADMIN")));
+        HOT_QUERIES.put("UserRepository.findByActiveTrueAndArchivedFalse",
+                new HotQuery(User.class, new Document("active", true).append("archived", false)));
+        HOT_QUERIES.put("UserRepository.findByStatus",
+                new HotQuery(User.class, new Document("active", true).append("archived", false).append("verified", true)));
+        HOT_QUERIES.put("UserRepository.findByArchivedTrue",
+                new HotQuery(User.class, new Document("archived", true)));
+        HOT_QUERIES.put("TokenRepository.findByToken",
+                new HotQuery(Token.class, new Document("token", "00000000-0000-0000-0000-000000000000")));
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoPersistentEntityIndexResolver indexResolver;
+    private final Duration slowBuildThreshold;
+
+    public MongoIndexVerifier(MongoTemplate mongoTemplate,
+                              @Value("${mongo.index-verifier.slow-build-threshold:5s}") Duration slowBuildThreshold) {
+        this.mongoTemplate = mongoTemplate;
+        this.indexResolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        this.slowBuildThreshold = slowBuildThreshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        ensureIndexes();
+        findCollectionScans();
+    }
+
+    /**
+     * Creates every declared index that does not exist yet. Returns the names of those created.
+     */
+    public List<String> ensureIndexes() {
+        List<String> created = new ArrayList<>();
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            Set<String> existing = indexOps.getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+
+            for (IndexDefinition definition : indexResolver.resolveIndexFor(entity)) {
+                String name = definition.getIndexOptions().getString("name");
+                if (existing.contains(name)) {
+                    continue;
+                }
+                log.warn("Missing index {} on {}, creating it", name, entity.getSimpleName());
+                long start = System.nanoTime();
+                try {
+                    indexOps.createIndex(definition);
+                    created.add(name);
+                } catch (RuntimeException e) {
+                    // Usually duplicate values under a unique index; the app still starts, but the lookup scans
+                    log.error("Failed to create index {} on {}: {}", name, entity.getSimpleName(), e.getMessage());
+                    continue;
+                }
+                Duration took = Duration.ofNanos(System.nanoTime() - start);
+                if (took.compareTo(slowBuildThreshold) > 0) {
+                    log.warn("Index {} on {} took {} ms to build", name, entity.getSimpleName(), took.toMillis());
+                }
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Explains each hot query and returns the names of those whose winning plan scans the collection.
+     */
+    public List<String> findCollectionScans() {
+        List<String> scans = new ArrayList<>();
+        HOT_QUERIES.forEach((name, query) -> {
+            List<String> stages = winningPlanStages(query);
+            if (stages.contains("COLLSCAN")) {
+                log.warn("{} is not served by an index (plan: {})", name, stages);
+                scans.add(name);
+            }
+        });
+        return scans;
+    }
+
+    List<String> winningPlanStages(HotQuery query) {
+        Document explain = mongoTemplate.getCollection(mongoTemplate.getCollectionName(query.entity()))
+                .find(query.filter())
+                .explain();
+        Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+        List<String> stages = new ArrayList<>();
+        collectStages(winningPlan, stages);
+        return stages;
+    }
+
+    private static void collectStages(Object node, List<String> stages) {
+        // Plans nest as inputStage/inputStages, and under queryPlan when the slot-based engine is used
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage instanceof String name) {
+                stages.add(name);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+
+    record HotQuery(Class<?> entity, Document filter) {
+    }
+}
@@ -7,4 +7,6 @@ import java.util.Optional;
 
 public interface TokenRepository extends MongoRepository<Token, String> {
     Optional<Token> findByToken(String token);
-}
\ No newline at end of file
+
+    long deleteByUsedTrue();
+}
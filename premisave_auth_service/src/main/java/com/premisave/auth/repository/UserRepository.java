@@ -7,7 +7,7 @@ import org.springframework.data.mongodb.repository.Query;
 import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     
     // Find by email (exact match)
     Optional<User> findByEmail(String email);
@@ -36,29 +36,6 @@ public interface UserRepository extends MongoRepository<User, String> {
     // Find by role
     List<User> findByRole(com.premisave.auth.enums.Role role);
     
-    // Search users across multiple fields (case-insensitive)
-    @Query("{'$or': ["
-            + "{'email': {'$regex': ?0, '$options': 'i'}}, "
-            + "{'firstName': {'$regex': ?0, '$options': 'i'}}, "
-            + "{'lastName': {'$regex': ?0, '$options': 'i'}}, "
-            + "{'username': {'$regex': ?0, '$options': 'i'}}, "
-            + "{'phoneNumber': {'$regex': ?0, '$options': 'i'}}"
-            + "]}")
-    List<User> searchUsers(String query);
-    
-    // Search with additional filters
-    @Query("{'$and': ["
-            + "{'$or': ["
-            + "{'email': {'$regex': ?0, '$options': 'i'}}, "
-            + "{'firstName': {'$regex': ?0, '$options': 'i'}}, "
-            + "{'lastName': {'$regex': ?0, '$options': 'i'}}, "
-            + "{'username': {'$regex': ?0, '$options': 'i'}}"
-            + "]}, "
-            + "{'active': ?1}, "
-            + "{'archived': ?2}"
-            + "]}")
-    List<User> searchUsersWithFilters(String query, boolean active, boolean archived);
-    
     // Check if email exists (for validation)
     boolean existsByEmail(String email);
     
@@ -0,0 +1,31 @@
+package com.premisave.auth.repository;
+
+import com.premisave.auth.enums.Role;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Targeted {@code $set} updates that touch only the changed fields, in a single round trip.
+ * Each returns the user's email (for cache eviction), or empty when no user has that id.
+ */
+public interface UserRepositoryCustom {
+
+    Optional<String> setActive(String id, boolean active);
+
+    Optional<String> setArchived(String id, boolean archived);
+
+    Optional<String> setVerified(String id, boolean verified);
+
+    Optional<String> setPassword(String id, String encodedPassword);
+
+    Optional<String> setRole(String id, Role role);
+
+    Optional<String> setProfilePictureUrl(String id, String profilePictureUrl);
+
+    /**
+     * Bumps lastLoginAt only; a login is not an edit, so updatedAt is left alone.
+     * Returns false when no user has that id.
+     */
+    boolean recordLogin(String id, LocalDateTime loginAt);
+}
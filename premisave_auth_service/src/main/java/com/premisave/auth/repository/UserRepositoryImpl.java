@@ -0,0 +1,70 @@
+package com.premisave.auth.repository;
+
+import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.Role;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    UserRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<String> setActive(String id, boolean active) {
+        return update(id, Update.update("active", active));
+    }
+
+    @Override
+    public Optional<String> setArchived(String id, boolean archived) {
+        return update(id, Update.update("archived", archived));
+    }
+
+    @Override
+    public Optional<String> setVerified(String id, boolean verified) {
+        return update(id, Update.update("verified", verified));
+    }
+
+    @Override
+    public Optional<String> setPassword(String id, String encodedPassword) {
+        return update(id, Update.update("password", encodedPassword));
+    }
+
+    @Override
+    public Optional<String> setRole(String id, Role role) {
+        return update(id, Update.update("role", role));
+    }
+
+    @Override
+    public Optional<String> setProfilePictureUrl(String id, String profilePictureUrl) {
+        return update(id, Update.update("profilePictureUrl", profilePictureUrl));
+    }
+
+    @Override
+    public boolean recordLogin(String id, LocalDateTime loginAt) {
+        return mongoTemplate.updateFirst(byId(id), Update.update("lastLoginAt", loginAt), User.class)
+                .getMatchedCount() > 0;
+    }
+
+    private Optional<String> update(String id, Update update) {
+        Query query = byId(id);
+        // Only the email comes back, so the audit references are never resolved
+        query.fields().include("email");
+        // $set bypasses auditing callbacks, so keep updatedAt current here
+        update.set("updatedAt", LocalDateTime.now());
+        User before = mongoTemplate.findAndModify(query, update, User.class);
+        return Optional.ofNullable(before).map(User::getEmail);
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("id").is(id));
+    }
+}
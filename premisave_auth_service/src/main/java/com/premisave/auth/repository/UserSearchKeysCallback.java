@@ -0,0 +1,19 @@
+package com.premisave.auth.repository;
+
+import com.premisave.auth.entity.User;
+import com.premisave.auth.service.UserSearchService;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes {@link User#getSearchKeys()} before every save so search never sees stale keys.
+ */
+@Component
+public class UserSearchKeysCallback implements BeforeConvertCallback<User> {
+
+    @Override
+    public User onBeforeConvert(User user, String collection) {
+        user.setSearchKeys(UserSearchService.searchKeys(user));
+        return user;
+    }
+}
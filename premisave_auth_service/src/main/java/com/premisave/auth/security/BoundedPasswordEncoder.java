@@ -0,0 +1,133 @@
+package com.premisave.auth.security;
+
+import com.premisave.auth.exception.PasswordHashingBusyException;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs every hash and verification on a dedicated bounded executor, so however many sign-in
+ * attempts arrive at once, hashing never uses more than that pool's threads and request threads
+ * only park while they wait. Admission is capped at the pool plus its queue; a caller that cannot
+ * get in within {@code maxWait} gets a {@link PasswordHashingBusyException} instead of queueing.
+ * Bulk work has its own, smaller permit pool, so an import never holds the permits sign-ins need
+ * and never has more than {@code bulkCapacity} hashes running or queued ahead of them.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final ThreadLocal<Boolean> HASHING_THREAD = ThreadLocal.withInitial(() -> false);
+
+    private final PasswordEncoder delegate;
+    private final Executor executor;
+    private final Semaphore admission;
+    private final Semaphore bulkAdmission;
+    private final Duration maxWait;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, Executor executor, int capacity, int bulkCapacity,
+                                  Duration maxWait) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.admission = new Semaphore(capacity);
+        this.bulkAdmission = new Semaphore(bulkCapacity);
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Marks the hashing executor's threads, so work already running there hashes in place
+     * instead of queueing behind itself.
+     */
+    public static TaskDecorator hashingThreadMarker() {
+        return task -> () -> {
+            HASHING_THREAD.set(true);
+            try {
+                task.run();
+            } finally {
+                HASHING_THREAD.remove();
+            }
+        };
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Hashes many passwords in parallel for bulk work. Unlike {@link #encode}, this waits for
+     * a bulk permit rather than failing, so a large import throttles itself.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rawPasswords.size());
+        for (CharSequence rawPassword : rawPasswords) {
+            try {
+                bulkAdmission.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PasswordHashingBusyException();
+            }
+            hashes.add(submit(() -> delegate.encode(rawPassword), bulkAdmission));
+        }
+        return hashes.stream().map(BoundedPasswordEncoder::join).toList();
+    }
+
+    private <T> T run(Supplier<T> work) {
+        if (HASHING_THREAD.get()) {
+            return work.get();
+        }
+        try {
+            if (!admission.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new PasswordHashingBusyException();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException();
+        }
+        return join(submit(work, admission));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work, Semaphore permits) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return work.get();
+                } finally {
+                    permits.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw new PasswordHashingBusyException();
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
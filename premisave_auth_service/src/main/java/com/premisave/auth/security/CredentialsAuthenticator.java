@@ -0,0 +1,95 @@
+package com.premisave.auth.security;
+
+import com.premisave.auth.entity.User;
+import com.premisave.auth.repository.UserRepository;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Email and password sign-in with one user lookup. Each attempt is checked against
+ * {@link LoginAttemptTracker} first, so locked accounts are refused before the database read or the
+ * password hash. Unknown emails are refused without hashing too; since sign-in reports unknown
+ * accounts anyway, there's no timing difference worth masking.
+ */
+@Component
+public class CredentialsAuthenticator implements AuthenticationProvider {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final LoginAttemptTracker attemptTracker;
+
+    public CredentialsAuthenticator(UserRepository userRepository,
+                                    PasswordEncoder passwordEncoder,
+                                    UserDetailsServiceImpl userDetailsService,
+                                    LoginAttemptTracker attemptTracker) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
+        this.attemptTracker = attemptTracker;
+    }
+
+    public SigninResult authenticate(String email, String password) {
+        LoginAttemptTracker.Status status = attemptTracker.check(email);
+        if (status.locked()) {
+            return new SigninResult.LockedOut(status.retryAfter());
+        }
+
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            return new SigninResult.UnknownAccount();
+        }
+
+        if (user.getPassword() == null || !passwordEncoder.matches(password, user.getPassword())) {
+            LoginAttemptTracker.Status failed = attemptTracker.recordFailure(email);
+            return failed.locked() ? new SigninResult.LockedOut(failed.retryAfter()) : new SigninResult.BadPassword();
+        }
+        if (status.failures() > 0) {
+            attemptTracker.reset(email);
+        }
+
+        // Rehash outdated hashes with the current algorithm and cost while the password is at hand
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            userDetailsService.updatePassword(user, passwordEncoder.encode(password));
+        }
+
+        if (!user.isVerified()) {
+            return new SigninResult.Unverified(user);
+        }
+        if (!user.isActive()) {
+            return new SigninResult.Inactive(user);
+        }
+        return new SigninResult.Success(user);
+    }
+
+    /**
+     * The same check for anything going through Spring Security's {@code AuthenticationManager},
+     * with outcomes mapped to its exceptions.
+     */
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String email = authentication.getName();
+        String password = authentication.getCredentials() == null ? "" : authentication.getCredentials().toString();
+        return switch (authenticate(email, password)) {
+            case SigninResult.Success success -> UsernamePasswordAuthenticationToken.authenticated(
+                    success.user(), null, success.user().getAuthorities());
+            case SigninResult.UnknownAccount unknown -> throw new BadCredentialsException("Bad credentials");
+            case SigninResult.BadPassword bad -> throw new BadCredentialsException("Bad credentials");
+            case SigninResult.Unverified unverified -> throw new DisabledException("Account not verified");
+            case SigninResult.Inactive inactive -> throw new DisabledException("Account is deactivated");
+            case SigninResult.LockedOut locked -> throw new LockedException("Too many failed sign-ins");
+        };
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+}
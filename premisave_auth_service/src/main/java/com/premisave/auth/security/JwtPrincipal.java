@@ -0,0 +1,70 @@
+package com.premisave.auth.security;
+
+import com.premisave.auth.enums.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated principal rebuilt from JWT claims alone, without touching MongoDB.
+ * Carries no password; services that need the full user must load it by email.
+ */
+public class JwtPrincipal implements UserDetails {
+
+    private final String id;
+    private final String email;
+    private final Role role;
+    private final boolean active;
+    private final boolean verified;
+
+    public JwtPrincipal(String id, String email, Role role, boolean active, boolean verified) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.active = active;
+        this.verified = verified;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public boolean isVerified() {
+        return verified;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active && verified;
+    }
+}
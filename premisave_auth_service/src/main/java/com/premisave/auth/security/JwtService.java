@@ -1,8 +1,14 @@
 package com.premisave.auth.security;
 
+import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,52 +16,164 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ACTIVE = "active";
+    public static final String CLAIM_VERIFIED = "verified";
+    // iat has second precision; revocation needs to order a token against a revocation in the same second
+    public static final String CLAIM_ISSUED_AT_MILLIS = "iat_ms";
 
-    @Value("${jwt.expiration}")
-    private long expiration;
+    private final SigningKeyRing keyRing;
+    private final String issuer;
+    private final long expiration;
+
+    // Only set while HS256 tokens issued before the switch to key pairs may still be live
+    private final Key legacyHmacKey;
+    // No HS256 token verifies after this instant, nor one claiming to be issued after it
+    private final Instant legacyHmacUntil;
+
+    // Built once; immutable and safe to share across request threads
+    private final JwtParser jwtParser;
+
+    public JwtService(SigningKeyRing keyRing,
+                      @Value("${jwt.issuer:premisave-auth}") String issuer,
+                      @Value("${jwt.expiration}") long expiration,
+                      @Value("${jwt.secret:}") String legacySecret,
+                      @Value("${jwt.legacy-hs256-until:}") String legacySecretUntil) {
+        this.keyRing = keyRing;
+        this.issuer = issuer;
+        this.expiration = expiration;
+        if (legacySecret.isBlank()) {
+            this.legacyHmacKey = null;
+            this.legacyHmacUntil = null;
+        } else if (legacySecretUntil.isBlank()) {
+            throw new IllegalStateException("jwt.secret is set without jwt.legacy-hs256-until. Set it to the switch "
+                    + "to key pairs plus the old token lifetime, or unset jwt.secret");
+        } else {
+            this.legacyHmacKey = buildSignInKey(legacySecret);
+            this.legacyHmacUntil = Instant.parse(legacySecretUntil);
+        }
+        this.jwtParser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                return verificationKey(header, claims);
+            }
+        }).build();
+    }
+
+    /**
+     * Until when HS256 tokens may still verify, or null if none are accepted. Those tokens carry
+     * no user id or token id, so their users are looked up to check them against revocations.
+     */
+    public Instant legacyTokensAcceptedUntil() {
+        return legacyHmacUntil;
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseValidatedClaims(token);
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifies the signature and expiry with a single parse and returns the claims.
+     * Throws if the token is malformed, tampered with or expired.
+     */
+    public Claims parseValidatedClaims(String token) {
+        try {
+            return jwtParser.parseClaimsJws(token).getBody();
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid JWT token", e);
+        }
+    }
+
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails, expiration);
+        return generateToken(principalClaims(userDetails), userDetails, expiration);
     }
 
-    public String generateRefreshToken(UserDetails userDetails) {
-        // Generate refresh token with the same expiration as access token (30 days)
-        return generateToken(new HashMap<>(), userDetails, expiration);
+    /**
+     * Rebuilds the principal from the claims embedded by {@link #generateToken(UserDetails)}.
+     * Returns null for tokens issued without them, so callers can fall back to a lookup.
+     */
+    public JwtPrincipal extractPrincipal(Claims claims) {
+        String role = claims.get(CLAIM_ROLE, String.class);
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        if (role == null || userId == null) {
+            return null;
+        }
+        return new JwtPrincipal(
+                userId,
+                claims.getSubject(),
+                Role.valueOf(role),
+                Boolean.TRUE.equals(claims.get(CLAIM_ACTIVE, Boolean.class)),
+                Boolean.TRUE.equals(claims.get(CLAIM_VERIFIED, Boolean.class)));
+    }
+
+    /**
+     * When the token was issued, in epoch milliseconds; falls back to {@code iat} for tokens
+     * without the millisecond claim. Null if the token carries neither.
+     */
+    public static Long issuedAtMillis(Claims claims) {
+        Object millis = claims.get(CLAIM_ISSUED_AT_MILLIS);
+        if (millis instanceof Number number) {
+            return number.longValue();
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null ? null : issuedAt.getTime();
+    }
+
+    private Map<String, Object> principalClaims(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole().name());
+            claims.put(CLAIM_ACTIVE, user.isActive());
+            claims.put(CLAIM_VERIFIED, user.isVerified());
+        } else if (userDetails instanceof JwtPrincipal principal) {
+            claims.put(CLAIM_USER_ID, principal.getId());
+            claims.put(CLAIM_ROLE, principal.getRole().name());
+            claims.put(CLAIM_ACTIVE, principal.isActive());
+            claims.put(CLAIM_VERIFIED, principal.isVerified());
+        }
+        return claims;
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails, long expirationTime) {
+        SigningKeyRing.SigningKey signingKey = keyRing.current();
+        long issuedAt = System.currentTimeMillis();
         return Jwts
                 .builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
                 .setClaims(extraClaims)
+                .setIssuer(issuer)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(issuedAt))
+                .claim(CLAIM_ISSUED_AT_MILLIS, issuedAt)
+                .setExpiration(new Date(issuedAt + expirationTime))
+                .signWith(signingKey.privateKey(), signingKey.algorithm())
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(parseValidatedClaims(token), userDetails);
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
     public boolean isTokenExpired(String token) {
@@ -66,20 +184,26 @@ public class JwtService {
         return extractClaim(token, Claims::getExpiration);
     }
 
-    private Claims extractAllClaims(String token) {
-        try {
-            return Jwts
-                    .parserBuilder()
-                    .setSigningKey(getSignInKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-        } catch (Exception e) {
-            throw new RuntimeException("Invalid JWT token", e);
+    private Key verificationKey(JwsHeader<?> header, Claims claims) {
+        if (SignatureAlgorithm.HS256.getValue().equals(header.getAlgorithm())) {
+            Date issuedAt = claims.getIssuedAt();
+            if (legacyHmacKey == null
+                    || !Instant.now().isBefore(legacyHmacUntil)
+                    || issuedAt == null
+                    || !issuedAt.toInstant().isBefore(legacyHmacUntil)) {
+                throw new JwtException("HS256 tokens are no longer accepted");
+            }
+            return legacyHmacKey;
+        }
+        String kid = header.getKeyId();
+        Key key = kid == null ? null : keyRing.verificationKey(kid);
+        if (key == null) {
+            throw new JwtException("Unknown signing key " + kid);
         }
+        return key;
     }
 
-    private Key getSignInKey() {
+    private static Key buildSignInKey(String secret) {
         try {
             byte[] keyBytes = Decoders.BASE64.decode(secret);
             
@@ -0,0 +1,118 @@
+package com.premisave.auth.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Failed sign-ins per account over a sliding window, as a sorted set of failure times at
+ * {@code login-failures:{email}}. Once an account reaches the limit, further attempts are refused
+ * without checking the password until its oldest failure leaves the window, so a burst of guesses
+ * costs one Redis call each rather than a password hash.
+ * <p>
+ * Fails open: if Redis is unavailable, sign-ins go through to the password check as usual.
+ */
+@Component
+@Slf4j
+public class LoginAttemptTracker {
+
+    /**
+     * @param failures failures in the current window
+     * @param retryAfter until the account unlocks; zero unless locked
+     */
+    public record Status(int failures, Duration retryAfter) {
+
+        static final Status CLEAR = new Status(0, Duration.ZERO);
+
+        public boolean locked() {
+            return !retryAfter.isZero();
+        }
+    }
+
+    private static final String KEY_PREFIX = "login-failures:";
+
+    // Returns {failures in window, ms until the oldest leaves it, or 0 if not locked}
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CHECK = RedisScript.of("""
+            local from = tonumber(ARGV[1]) - tonumber(ARGV[2])
+            local failures = redis.call('ZCOUNT', KEYS[1], '(' .. from, '+inf')
+            if failures < tonumber(ARGV[3]) then
+                return {failures, 0}
+            end
+            local oldest = redis.call('ZRANGEBYSCORE', KEYS[1], '(' .. from, '+inf', 'WITHSCORES', 'LIMIT', 0, 1)
+            return {failures, math.max(1, tonumber(oldest[2]) - from)}
+            """, List.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RECORD = RedisScript.of("""
+            local from = tonumber(ARGV[1]) - tonumber(ARGV[2])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', from)
+            redis.call('ZADD', KEYS[1], ARGV[1], ARGV[4])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            local failures = redis.call('ZCARD', KEYS[1])
+            if failures < tonumber(ARGV[3]) then
+                return {failures, 0}
+            end
+            local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+            return {failures, math.max(1, tonumber(oldest[2]) - from)}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final int maxFailures;
+    private final long windowMillis;
+
+    public LoginAttemptTracker(StringRedisTemplate redisTemplate,
+                               @Value("${security.lockout.max-failures:5}") int maxFailures,
+                               @Value("${security.lockout.window:15m}") Duration window) {
+        this.redisTemplate = redisTemplate;
+        this.maxFailures = maxFailures;
+        this.windowMillis = window.toMillis();
+    }
+
+    public Status check(String email) {
+        return run(CHECK, email, "");
+    }
+
+    /**
+     * Records a failed password and returns the status including it.
+     */
+    public Status recordFailure(String email) {
+        // Unique member, so failures in the same millisecond are all counted
+        return run(RECORD, email, Long.toHexString(ThreadLocalRandom.current().nextLong()));
+    }
+
+    public void reset(String email) {
+        try {
+            redisTemplate.delete(key(email));
+        } catch (RuntimeException e) {
+            log.warn("Could not reset failed sign-ins: {}", e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Status run(RedisScript<List> script, String email, String member) {
+        List<Long> result;
+        try {
+            result = redisTemplate.execute(script, List.of(key(email)), String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(windowMillis), String.valueOf(maxFailures), member);
+        } catch (RuntimeException e) {
+            log.warn("Could not check failed sign-ins, allowing attempt: {}", e.getMessage());
+            return Status.CLEAR;
+        }
+        if (result == null || result.size() < 2) {
+            return Status.CLEAR;
+        }
+        return new Status(result.get(0).intValue(), Duration.ofMillis(result.get(1)));
+    }
+
+    private static String key(String email) {
+        return KEY_PREFIX + email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,39 @@
+package com.premisave.auth.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks a BCrypt cost for this host at startup. Each extra cost step doubles the work, so one
+ * measurement at the minimum cost is enough to find the highest cost within the target latency.
+ */
+public final class PasswordHashCalibrator {
+
+    private static final String PROBE_PASSWORD = "calibration-Probe-9f3c!";
+    private static final int SAMPLES = 3;
+
+    private PasswordHashCalibrator() {
+    }
+
+    public static int bcryptStrength(Duration targetLatency, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        String hash = probe.encode(PROBE_PASSWORD); // also warms up the JIT
+
+        // Fastest of a few runs: noise only ever makes a run slower
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            probe.matches(PROBE_PASSWORD, hash);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        long estimate = fastest;
+        while (strength < maxStrength && estimate * 2 <= targetLatency.toNanos()) {
+            strength++;
+            estimate *= 2;
+        }
+        return strength;
+    }
+}
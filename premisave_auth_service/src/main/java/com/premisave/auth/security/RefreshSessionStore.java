@@ -0,0 +1,193 @@
+package com.premisave.auth.security;
+
+import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.Role;
+import com.premisave.auth.exception.InvalidRefreshTokenException;
+import com.premisave.auth.exception.StaleRefreshTokenException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Refresh sessions in Redis. A session is a hash at {@code session:{id}} holding the SHA-256 of
+ * the current refresh secret, the one before it, and the claims needed to mint an access token,
+ * so a refresh is one script call with no MongoDB read. Clients hold an opaque
+ * {@code {sessionId}.{secret}} token that changes on every refresh.
+ * <p>
+ * Presenting any secret other than the current one revokes the session, since it means a token
+ * was copied and both copies are in use. The one exception is the immediately previous secret
+ * within a short grace window, which is what two tabs racing to refresh look like; that caller
+ * is refused with {@link StaleRefreshTokenException} (409), telling it to pick up the token the
+ * other request stored, and the session survives.
+ */
+@Component
+@Slf4j
+public class RefreshSessionStore {
+
+    public record Rotation(String refreshToken, JwtPrincipal principal) {
+    }
+
+    private static final String SESSION_KEY_PREFIX = "session:";
+    private static final String USER_SESSIONS_KEY_PREFIX = "user-sessions:";
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+
+    private static final RedisScript<Long> CREATE = RedisScript.of("""
+            redis.call('HSET', KEYS[1], 'secret', ARGV[1], 'uid', ARGV[2], 'email', ARGV[3], 'role', ARGV[4],
+                'active', ARGV[5], 'verified', ARGV[6])
+            redis.call('PEXPIRE', KEYS[1], ARGV[7])
+            redis.call('SADD', KEYS[2], ARGV[8])
+            redis.call('PEXPIRE', KEYS[2], ARGV[7])
+            return 1
+            """, Long.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE = RedisScript.of("""
+            local s = redis.call('HMGET', KEYS[1], 'secret', 'prev', 'rotated', 'uid', 'email', 'role', 'active', 'verified')
+            if not s[1] then
+                return {'missing'}
+            end
+            if s[1] == ARGV[1] then
+                redis.call('HSET', KEYS[1], 'secret', ARGV[2], 'prev', ARGV[1], 'rotated', ARGV[3])
+                return {'ok', s[4], s[5], s[6], s[7], s[8]}
+            end
+            if s[2] == ARGV[1] and tonumber(ARGV[3]) - tonumber(s[3]) <= tonumber(ARGV[4]) then
+                return {'stale'}
+            end
+            redis.call('DEL', KEYS[1])
+            return {'reused'}
+            """, List.class);
+
+    private static final RedisScript<Long> REVOKE_USERS = RedisScript.of("""
+            local revoked = 0
+            for _, key in ipairs(KEYS) do
+                for _, sessionId in ipairs(redis.call('SMEMBERS', key)) do
+                    revoked = revoked + redis.call('DEL', ARGV[1] .. sessionId)
+                end
+                redis.call('DEL', key)
+            end
+            return revoked
+            """, Long.class);
+
+    private static final RedisScript<Long> REVOKE = RedisScript.of("""
+            local s = redis.call('HMGET', KEYS[1], 'secret', 'prev', 'uid')
+            if s[1] ~= ARGV[1] and s[2] ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SREM', ARGV[2] .. s[3], ARGV[3])
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long lifetimeMillis;
+    private final long reuseGraceMillis;
+
+    public RefreshSessionStore(StringRedisTemplate redisTemplate,
+                               @Value("${jwt.refresh-token-expiration}") long lifetimeMillis,
+                               @Value("${jwt.refresh-reuse-grace:10s}") Duration reuseGrace) {
+        this.redisTemplate = redisTemplate;
+        this.lifetimeMillis = lifetimeMillis;
+        this.reuseGraceMillis = reuseGrace.toMillis();
+    }
+
+    /**
+     * Starts a session for a user who has just signed in and returns its first refresh token.
+     */
+    public String create(User user) {
+        String sessionId = randomToken(16);
+        String secret = randomToken(32);
+        redisTemplate.execute(CREATE,
+                List.of(SESSION_KEY_PREFIX + sessionId, USER_SESSIONS_KEY_PREFIX + user.getId()),
+                hash(secret), user.getId(), user.getEmail(), user.getRole().name(),
+                String.valueOf(user.isActive()), String.valueOf(user.isVerified()),
+                String.valueOf(lifetimeMillis), sessionId);
+        return sessionId + "." + secret;
+    }
+
+    /**
+     * Swaps the presented refresh token for a new one in a single round trip.
+     */
+    @SuppressWarnings("unchecked")
+    public Rotation rotate(String refreshToken) {
+        int dot = refreshToken == null ? -1 : refreshToken.indexOf('.');
+        if (dot <= 0 || dot == refreshToken.length() - 1) {
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+        String sessionId = refreshToken.substring(0, dot);
+        String newSecret = randomToken(32);
+
+        List<String> result = redisTemplate.execute(ROTATE, List.of(SESSION_KEY_PREFIX + sessionId),
+                hash(refreshToken.substring(dot + 1)), hash(newSecret),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(reuseGraceMillis));
+        String status = result == null || result.isEmpty() ? "missing" : result.get(0);
+        switch (status) {
+            case "ok" -> {
+                JwtPrincipal principal = new JwtPrincipal(result.get(1), result.get(2), Role.valueOf(result.get(3)),
+                        Boolean.parseBoolean(result.get(4)), Boolean.parseBoolean(result.get(5)));
+                return new Rotation(sessionId + "." + newSecret, principal);
+            }
+            case "stale" -> throw new StaleRefreshTokenException();
+            case "reused" -> {
+                log.warn("Refresh token reuse detected; revoked session {}", sessionId);
+                throw new InvalidRefreshTokenException("Refresh token was already used");
+            }
+            default -> throw new InvalidRefreshTokenException("Refresh session expired or revoked");
+        }
+    }
+
+    /**
+     * Ends the session the given refresh token belongs to, if it is still that session's current
+     * or previous token. Anything else is ignored, so a session id alone can't end a session.
+     */
+    public void revoke(String refreshToken) {
+        int dot = refreshToken.indexOf('.');
+        if (dot <= 0 || dot == refreshToken.length() - 1) {
+            return;
+        }
+        String sessionId = refreshToken.substring(0, dot);
+        redisTemplate.execute(REVOKE, List.of(SESSION_KEY_PREFIX + sessionId),
+                hash(refreshToken.substring(dot + 1)), USER_SESSIONS_KEY_PREFIX, sessionId);
+    }
+
+    /**
+     * Ends every session of the given users, e.g. after a password, role or status change,
+     * so their claims can't outlive the change.
+     */
+    public void revokeAll(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<String> keys = userIds.stream().map(id -> USER_SESSIONS_KEY_PREFIX + id).toList();
+        redisTemplate.execute(REVOKE_USERS, keys, SESSION_KEY_PREFIX);
+    }
+
+    public void revokeAll(String userId) {
+        revokeAll(List.of(userId));
+    }
+
+    private static String randomToken(int bytes) {
+        byte[] buffer = new byte[bytes];
+        RANDOM.nextBytes(buffer);
+        return BASE64.encodeToString(buffer);
+    }
+
+    private static String hash(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return BASE64.encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.premisave.auth.security;
+
+import com.premisave.auth.entity.User;
+
+import java.time.Duration;
+
+/**
+ * Outcome of checking a sign-in. Account status is only reported once the password has matched,
+ * so it can't be probed without the password.
+ */
+public sealed interface SigninResult {
+
+    record Success(User user) implements SigninResult {
+    }
+
+    record UnknownAccount() implements SigninResult {
+    }
+
+    record BadPassword() implements SigninResult {
+    }
+
+    record Unverified(User user) implements SigninResult {
+    }
+
+    record Inactive(User user) implements SigninResult {
+    }
+
+    /**
+     * Too many recent failures; the password was not checked.
+     */
+    record LockedOut(Duration retryAfter) implements SigninResult {
+    }
+}
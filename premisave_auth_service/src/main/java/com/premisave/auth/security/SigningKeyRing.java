@@ -0,0 +1,195 @@
+package com.premisave.auth.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The keys access tokens are signed with, each named by the {@code kid} token header. The newest
+ * key whose activation time has passed signs. Keys are published for verification from the moment
+ * they are configured until every token they signed has expired: pending keys ahead of activation,
+ * so verifiers have cached them before the first such token arrives, and retired keys for
+ * {@code retention} after the next key took over.
+ */
+public class SigningKeyRing {
+
+    public record SigningKey(String kid, PrivateKey privateKey, PublicKey publicKey, Instant activeFrom) {
+
+        public SignatureAlgorithm algorithm() {
+            return publicKey instanceof ECPublicKey ? SignatureAlgorithm.ES256 : SignatureAlgorithm.RS256;
+        }
+
+        /**
+         * The public half as a JSON Web Key (RFC 7517).
+         */
+        public Map<String, Object> toJwk() {
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kid", kid);
+            jwk.put("use", "sig");
+            jwk.put("alg", algorithm().getValue());
+            if (publicKey instanceof RSAPublicKey rsa) {
+                jwk.put("kty", "RSA");
+                jwk.put("n", base64Url(rsa.getModulus(), 0));
+                jwk.put("e", base64Url(rsa.getPublicExponent(), 0));
+            } else if (publicKey instanceof ECPublicKey ec) {
+                jwk.put("kty", "EC");
+                jwk.put("crv", "P-256");
+                jwk.put("x", base64Url(ec.getW().getAffineX(), 32));
+                jwk.put("y", base64Url(ec.getW().getAffineY(), 32));
+            }
+            return jwk;
+        }
+    }
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    // Ascending by activation, so a key is retired by the one after it
+    private final List<SigningKey> keys;
+    private final Duration retention;
+    private final Clock clock;
+
+    public SigningKeyRing(List<SigningKey> keys, Duration retention, Clock clock) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("At least one signing key is required");
+        }
+        HashSet<String> kids = new HashSet<>();
+        for (SigningKey key : keys) {
+            if (!kids.add(key.kid())) {
+                throw new IllegalArgumentException("Duplicate signing key id: " + key.kid());
+            }
+            verifyPair(key);
+        }
+        this.keys = keys.stream().sorted(Comparator.comparing(SigningKey::activeFrom)).toList();
+        this.retention = retention;
+        this.clock = clock;
+        current();
+    }
+
+    /**
+     * A single freshly generated RS256 key, for development and tests. Tokens it signs stop
+     * validating on restart and aren't accepted by other nodes.
+     */
+    public static SigningKeyRing ephemeral(Duration retention) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair pair = generator.generateKeyPair();
+            byte[] id = new byte[8];
+            new SecureRandom().nextBytes(id);
+            SigningKey key = new SigningKey("ephemeral-" + HexFormat.of().formatHex(id),
+                    pair.getPrivate(), pair.getPublic(), Instant.EPOCH);
+            return new SigningKeyRing(List.of(key), retention, Clock.systemUTC());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not generate a signing key", e);
+        }
+    }
+
+    /**
+     * The key new tokens are signed with.
+     */
+    public SigningKey current() {
+        Instant now = clock.instant();
+        SigningKey current = null;
+        for (SigningKey key : keys) {
+            if (key.activeFrom().isAfter(now)) {
+                break;
+            }
+            current = key;
+        }
+        if (current == null) {
+            throw new IllegalStateException("No signing key is active yet; the earliest activates at "
+                    + keys.get(0).activeFrom());
+        }
+        return current;
+    }
+
+    /**
+     * The keys verifiers should accept right now, in activation order.
+     */
+    public List<SigningKey> published() {
+        Instant now = clock.instant();
+        List<SigningKey> published = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            if (isPublished(i, now)) {
+                published.add(keys.get(i));
+            }
+        }
+        return published;
+    }
+
+    /**
+     * The public key for a published {@code kid}, or null if there is none.
+     */
+    public PublicKey verificationKey(String kid) {
+        Instant now = clock.instant();
+        for (int i = 0; i < keys.size(); i++) {
+            if (keys.get(i).kid().equals(kid)) {
+                return isPublished(i, now) ? keys.get(i).publicKey() : null;
+            }
+        }
+        return null;
+    }
+
+    private boolean isPublished(int index, Instant now) {
+        if (index + 1 == keys.size()) {
+            return true;
+        }
+        Instant retiredAt = keys.get(index + 1).activeFrom();
+        return retiredAt.plus(retention).isAfter(now);
+    }
+
+    // Fails at startup rather than on the first token if a key file was paired with the wrong half
+    private static void verifyPair(SigningKey key) {
+        boolean supported = key.publicKey() instanceof RSAPublicKey rsa && rsa.getModulus().bitLength() >= 2048
+                || key.publicKey() instanceof ECPublicKey ec && ec.getParams().getCurve().getField().getFieldSize() == 256;
+        if (!supported) {
+            throw new IllegalArgumentException("Signing key " + key.kid() + " must be RSA (2048+ bits) or EC P-256");
+        }
+        try {
+            String algorithm = key.algorithm() == SignatureAlgorithm.ES256 ? "SHA256withECDSA" : "SHA256withRSA";
+            byte[] probe = key.kid().getBytes();
+            Signature signer = Signature.getInstance(algorithm);
+            signer.initSign(key.privateKey());
+            signer.update(probe);
+            byte[] signature = signer.sign();
+            Signature verifier = Signature.getInstance(algorithm);
+            verifier.initVerify(key.publicKey());
+            verifier.update(probe);
+            if (!verifier.verify(signature)) {
+                throw new IllegalArgumentException("Public and private key of " + key.kid() + " don't match");
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Unusable signing key " + key.kid(), e);
+        }
+    }
+
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        // Unsigned big-endian: drop the sign byte, then left-pad fixed-width coordinates
+        int start = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+        int size = Math.max(bytes.length - start, length);
+        byte[] unsigned = new byte[size];
+        System.arraycopy(bytes, start, unsigned, size - (bytes.length - start), bytes.length - start);
+        return BASE64_URL.encodeToString(unsigned);
+    }
+}
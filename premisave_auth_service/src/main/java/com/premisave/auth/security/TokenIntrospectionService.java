@@ -0,0 +1,95 @@
+package com.premisave.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.premisave.auth.dto.TokenIntrospection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Introspection for internal services that can't validate tokens themselves. A batch is checked in
+ * one pass. Each token is verified once: its result is then cached until the token expires.
+ * Revocation is checked on every lookup, cached or not, so a revoked token goes inactive at once.
+ * Legacy tokens carry no user id, so their user is looked up (from the user cache) on each check.
+ */
+@Service
+public class TokenIntrospectionService {
+
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserDetailsServiceImpl userDetailsService;
+
+    // Null when caching is disabled
+    private final Cache<String, TokenIntrospection> cache;
+
+    public TokenIntrospectionService(JwtService jwtService,
+                                     TokenRevocationService tokenRevocationService,
+                                     UserDetailsServiceImpl userDetailsService,
+                                     @Value("${introspection.cache.max-size:100000}") long cacheMaxSize) {
+        this.jwtService = jwtService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userDetailsService = userDetailsService;
+        this.cache = cacheMaxSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(Expiry.<String, TokenIntrospection>creating((token, result) ->
+                        Duration.between(Instant.now(), Instant.ofEpochSecond(result.exp()))))
+                .build();
+    }
+
+    /**
+     * Results in the same order as the tokens; anything invalid, expired or revoked is inactive.
+     */
+    public List<TokenIntrospection> introspect(List<String> tokens) {
+        List<TokenIntrospection> results = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            results.add(introspect(token));
+        }
+        return results;
+    }
+
+    public TokenIntrospection introspect(String token) {
+        if (token == null || token.isEmpty()) {
+            return TokenIntrospection.INACTIVE;
+        }
+        TokenIntrospection result = cache == null ? null : cache.getIfPresent(token);
+        if (result == null) {
+            try {
+                result = TokenIntrospection.of(jwtService.parseValidatedClaims(token));
+            } catch (RuntimeException e) {
+                return TokenIntrospection.INACTIVE;
+            }
+            if (cache != null) {
+                cache.put(token, result);
+            }
+        } else if (result.exp() <= System.currentTimeMillis() / 1000) {
+            // Caffeine evicts lazily; don't hand out an entry in its last moments
+            return TokenIntrospection.INACTIVE;
+        }
+        String userId = result.uid();
+        if (userId == null) {
+            // Legacy token: revocations are by user id, and the account must still be active
+            userId = activeUserId(result.sub());
+            if (userId == null) {
+                return TokenIntrospection.INACTIVE;
+            }
+        }
+        return tokenRevocationService.isRevoked(result.jti(), userId, result.issuedAtMillis())
+                ? TokenIntrospection.INACTIVE : result;
+    }
+
+    private String activeUserId(String email) {
+        try {
+            JwtPrincipal principal = userDetailsService.loadPrincipal(email);
+            return principal.isActive() ? principal.getId() : null;
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+}
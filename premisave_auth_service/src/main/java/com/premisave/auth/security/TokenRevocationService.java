@@ -0,0 +1,212 @@
+package com.premisave.auth.security;
+
+import com.premisave.auth.util.BloomFilter;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Revokes access tokens before they expire. Single tokens are denied by {@code jti}; a user is
+ * denied every token issued up to the moment of revocation, which covers password changes and
+ * deactivation without tracking what was issued. Both live in Redis under {@code revoked:*} only
+ * for as long as the tokens they deny could still be valid, which for users includes legacy HS256
+ * tokens while {@link JwtService} still accepts them.
+ * <p>
+ * Each node mirrors those keys in a local Bloom filter, updated over pub/sub and rebuilt from
+ * Redis periodically to shed expired entries and anything a dropped subscription missed. A
+ * token that misses the filter is not revoked, so the common case costs no network call; only
+ * filter hits are confirmed against Redis.
+ */
+@Component
+@Slf4j
+public class TokenRevocationService implements MessageListener {
+
+    public static final String REVOCATION_CHANNEL = "token-revocations";
+    private static final String KEY_PREFIX = "revoked:";
+    private static final String TOKEN_MEMBER_PREFIX = "token:";
+    private static final String USER_MEMBER_PREFIX = "user:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RefreshSessionStore sessionStore;
+    private final JwtService jwtService;
+    private final long accessTokenLifetimeMillis;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+
+    // Null until the first rebuild, during which every check goes to Redis
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+
+    public TokenRevocationService(StringRedisTemplate redisTemplate,
+                                  RefreshSessionStore sessionStore,
+                                  JwtService jwtService,
+                                  @Value("${jwt.expiration}") long accessTokenLifetimeMillis,
+                                  @Value("${jwt.revocation.expected-entries:100000}") long expectedRevocations,
+                                  @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.redisTemplate = redisTemplate;
+        this.sessionStore = sessionStore;
+        this.jwtService = jwtService;
+        this.accessTokenLifetimeMillis = accessTokenLifetimeMillis;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Denies one access token, e.g. on logout, for the rest of its lifetime.
+     */
+    public void revokeToken(Claims claims) {
+        String jti = claims.getId();
+        Date expiresAt = claims.getExpiration();
+        if (jti == null || expiresAt == null) {
+            return;
+        }
+        long remaining = expiresAt.getTime() - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return;
+        }
+        String member = TOKEN_MEMBER_PREFIX + jti;
+        redisTemplate.opsForValue().set(KEY_PREFIX + member, "1", Duration.ofMillis(remaining));
+        redisTemplate.convertAndSend(REVOCATION_CHANNEL, member);
+    }
+
+    /**
+     * Signs the given users out everywhere: ends their refresh sessions and denies every access
+     * token issued to them so far. Tokens issued later, after signing in again, are unaffected.
+     */
+    public void revokeUsers(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        sessionStore.revokeAll(userIds);
+
+        // Compared with the token's millisecond issue time, so signing in again right away works
+        long now = System.currentTimeMillis();
+        String revokedAt = String.valueOf(now);
+        // Legacy tokens outlive access tokens by far; keep denying them until they stop verifying
+        Instant legacyUntil = jwtService.legacyTokensAcceptedUntil();
+        Expiration lifetime = Expiration.milliseconds(Math.max(accessTokenLifetimeMillis,
+                legacyUntil == null ? 0 : legacyUntil.toEpochMilli() - now));
+        List<String> members = userIds.stream().map(id -> USER_MEMBER_PREFIX + id).toList();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String member : members) {
+                stringConnection.set(KEY_PREFIX + member, revokedAt, lifetime, RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        });
+        redisTemplate.convertAndSend(REVOCATION_CHANNEL, String.join("\n", members));
+    }
+
+    public void revokeUser(String userId) {
+        revokeUsers(List.of(userId));
+    }
+
+    /**
+     * Whether a token that has already passed signature and expiry checks has been revoked.
+     * If Redis can't be reached to confirm a filter hit, the token is treated as revoked.
+     *
+     * @param userId the token's {@code uid}, or for legacy tokens without one the id of the user
+     *               its subject names; only user revocations are checked if the token has no id
+     * @param issuedAtMillis see {@link JwtService#issuedAtMillis}
+     */
+    public boolean isRevoked(String tokenId, String userId, Long issuedAtMillis) {
+        String tokenMember = tokenId == null ? null : TOKEN_MEMBER_PREFIX + tokenId;
+        String userMember = userId == null ? null : USER_MEMBER_PREFIX + userId;
+
+        BloomFilter current = filter;
+        boolean tokenSuspect = tokenMember != null && (current == null || current.mightContain(tokenMember));
+        boolean userSuspect = userMember != null && (current == null || current.mightContain(userMember));
+        if (!tokenSuspect && !userSuspect) {
+            return false;
+        }
+
+        try {
+            List<String> keys = new ArrayList<>(2);
+            if (tokenSuspect) {
+                keys.add(KEY_PREFIX + tokenMember);
+            }
+            if (userSuspect) {
+                keys.add(KEY_PREFIX + userMember);
+            }
+            List<String> values = redisTemplate.opsForValue().multiGet(keys);
+            if (tokenSuspect && values.get(0) != null) {
+                return true;
+            }
+            String revokedAt = userSuspect ? values.get(keys.size() - 1) : null;
+            if (revokedAt == null) {
+                return false;
+            }
+            return issuedAtMillis == null || issuedAtMillis <= Long.parseLong(revokedAt);
+        } catch (RuntimeException e) {
+            log.warn("Could not check token revocation, rejecting token: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // Read rebuilding first: if it was null, the key predates the scan and the scan will see it
+        BloomFilter pending = rebuilding;
+        BloomFilter current = filter;
+        for (String member : new String(message.getBody(), StandardCharsets.UTF_8).split("\n")) {
+            if (member.isEmpty()) {
+                continue;
+            }
+            if (current != null) {
+                current.put(member);
+            }
+            if (pending != null) {
+                pending.put(member);
+            }
+        }
+    }
+
+    /**
+     * Replaces the filter with one built from the keys currently in Redis. Runs at startup and
+     * then periodically, since entries can't be removed from a Bloom filter as they expire.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:10m}")
+    public void rebuild() {
+        BloomFilter current = filter;
+        long capacity = Math.max(expectedRevocations, current == null ? 0 : current.size() * 2);
+        BloomFilter next = new BloomFilter(capacity, falsePositiveRate);
+        rebuilding = next;
+
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+        List<String> members = new ArrayList<>();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            keys.forEachRemaining(key -> members.add(key.substring(KEY_PREFIX.length())));
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild token revocation filter: {}", e.getMessage());
+            rebuilding = null;
+            return;
+        }
+        members.forEach(next::put);
+
+        filter = next;
+        rebuilding = null;
+        if (members.size() > expectedRevocations) {
+            log.warn("{} revoked tokens and users exceed jwt.revocation.expected-entries ({}); consider raising it",
+                    members.size(), expectedRevocations);
+        }
+    }
+}
@@ -1,18 +1,24 @@
 package com.premisave.auth.security;
 
+import com.premisave.auth.dto.UserDto;
+import com.premisave.auth.entity.User;
 import com.premisave.auth.repository.UserRepository;
+import com.premisave.auth.service.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, UserCache userCache) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
     }
 
     @Override
@@ -20,4 +26,26 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         return userRepository.findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
+
+    /**
+     * Called by the authentication provider after a successful login whose stored hash is
+     * outdated (older algorithm or lower cost), with the password freshly hashed.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User stored = (User) user;
+        userRepository.setPassword(stored.getId(), newPassword);
+        stored.setPassword(newPassword);
+        return stored;
+    }
+
+    /**
+     * A password-less principal served from the user cache, for requests that are already
+     * authenticated by a token. Password checks must use {@link #loadUserByUsername}.
+     */
+    public JwtPrincipal loadPrincipal(String email) {
+        UserDto user = userCache.getByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        return new JwtPrincipal(user.getId(), user.getEmail(), user.getRole(), user.isActive(), user.isVerified());
+    }
 }
\ No newline at end of file
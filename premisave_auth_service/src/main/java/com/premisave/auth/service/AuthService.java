@@ -1,50 +1,49 @@
 package com.premisave.auth.service;
 
 import com.premisave.auth.dto.*;
-import com.premisave.auth.entity.Token;
 import com.premisave.auth.entity.User;
 import com.premisave.auth.enums.Language;
+import com.premisave.auth.enums.RateLimitedEndpoint;
 import com.premisave.auth.enums.Role;
 import com.premisave.auth.enums.TokenType;
-import com.premisave.auth.repository.TokenRepository;
+import com.premisave.auth.exception.AccountLockedException;
+import com.premisave.auth.exception.RateLimitExceededException;
+import com.premisave.auth.exception.UserNotFoundException;
 import com.premisave.auth.repository.UserRepository;
+import com.premisave.auth.security.CredentialsAuthenticator;
+import com.premisave.auth.security.JwtPrincipal;
 import com.premisave.auth.security.JwtService;
+import com.premisave.auth.security.RefreshSessionStore;
+import com.premisave.auth.security.SigninResult;
+import com.premisave.auth.security.TokenRevocationService;
+import com.premisave.auth.util.RateLimiter;
+import io.jsonwebtoken.Claims;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.util.FileCopyUtils;
 
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.Year;
-import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 @Service
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final TokenRepository tokenRepository;
+    private final TokenService tokenService;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
+    private final CredentialsAuthenticator credentialsAuthenticator;
     private final EmailService emailService;
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final ResourceLoader resourceLoader;
+    private final EmailTemplateService emailTemplateService;
+    private final UserCache userCache;
+    private final RefreshSessionStore sessionStore;
+    private final TokenRevocationService tokenRevocationService;
+    private final RateLimiter rateLimiter;
 
     @Value("${frontend.url:http://localhost:3000}")
     private String frontendUrl;
@@ -94,21 +93,27 @@ public class AuthService {
     }
 
     public AuthService(UserRepository userRepository,
-                       TokenRepository tokenRepository,
+                       TokenService tokenService,
                        PasswordEncoder passwordEncoder,
                        JwtService jwtService,
-                       AuthenticationManager authenticationManager,
+                       CredentialsAuthenticator credentialsAuthenticator,
                        EmailService emailService,
-                       RedisTemplate<String, Object> redisTemplate,
-                       ResourceLoader resourceLoader) {
+                       EmailTemplateService emailTemplateService,
+                       UserCache userCache,
+                       RefreshSessionStore sessionStore,
+                       TokenRevocationService tokenRevocationService,
+                       RateLimiter rateLimiter) {
         this.userRepository = userRepository;
-        this.tokenRepository = tokenRepository;
+        this.tokenService = tokenService;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
-        this.authenticationManager = authenticationManager;
+        this.credentialsAuthenticator = credentialsAuthenticator;
         this.emailService = emailService;
-        this.redisTemplate = redisTemplate;
-        this.resourceLoader = resourceLoader;
+        this.emailTemplateService = emailTemplateService;
+        this.userCache = userCache;
+        this.sessionStore = sessionStore;
+        this.tokenRevocationService = tokenRevocationService;
+        this.rateLimiter = rateLimiter;
     }
 
     public AuthResponse signup(SignupRequest request) {
@@ -143,7 +148,7 @@ public class AuthService {
         user = userRepository.save(user);
         System.out.println("DEBUG: User saved to MongoDB with ID: " + user.getId());
 
-        String activationToken = generateToken(user, TokenType.ACTIVATION);
+        String activationToken = tokenService.create(user, TokenType.ACTIVATION);
         String activationLink = frontendUrl + "/verify/" + activationToken;
         
         // Prepare template data
@@ -152,7 +157,7 @@ public class AuthService {
         templateData.put("supportEmail", supportEmail);
         templateData.put("currentYear", String.valueOf(Year.now().getValue()));
         
-        String emailContent = processEmailTemplate(activationEmailPath, templateData);
+        String emailContent = emailTemplateService.render(activationEmailPath, templateData);
 
         // Use RabbitMQ to queue the email
         emailService.queueEmail(
@@ -170,105 +175,81 @@ public class AuthService {
     }
 
     public AuthResponse signin(AuthRequest request) {
-        try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-            );
+        checkAccountRateLimit(RateLimitedEndpoint.SIGNIN, request.getEmail());
+
+        // One user lookup; each outcome says why, so no second query is needed to pick the message
+        User user = switch (credentialsAuthenticator.authenticate(request.getEmail(), request.getPassword())) {
+            case SigninResult.Success success -> success.user();
+            case SigninResult.UnknownAccount unknown ->
+                    throw new RuntimeException("No account found with this email. Please sign up first.");
+            case SigninResult.BadPassword bad -> throw new RuntimeException("Incorrect password. Please try again.");
+            case SigninResult.Unverified unverified ->
+                    throw new RuntimeException("Account not verified. Please check your email.");
+            case SigninResult.Inactive inactive ->
+                    throw new RuntimeException("Account is deactivated. Please contact support.");
+            case SigninResult.LockedOut locked -> throw new AccountLockedException(locked.retryAfter());
+        };
+
+        // Update last login timestamp with a single-field $set
+        LocalDateTime loginAt = LocalDateTime.now();
+        if (!userRepository.recordLogin(user.getId(), loginAt)) {
+            throw new UserNotFoundException(user.getId());
+        }
+        user.setLastLoginAt(loginAt);
 
-            User user = (User) authentication.getPrincipal();
+        // Write through so the first authenticated request is served from the cache
+        userCache.put(user);
 
-            if (!user.isVerified()) {
-                throw new RuntimeException("Account not verified. Please check your email.");
-            }
+        AuthResponse response = new AuthResponse();
+        response.setToken(jwtService.generateToken(user));
+        response.setRefreshToken(sessionStore.create(user));
+        response.setRole(user.getRole().name());
+        response.setRedirectUrl(getDashboardUrl(user.getRole()));
+        return response;
+    }
 
-            if (!user.isActive()) {
-                throw new RuntimeException("Account is deactivated. Please contact support.");
-            }
+    public AuthResponse refreshToken(RefreshTokenRequest request) {
+        // One Redis script call: checks and rotates the refresh token and returns the claims
+        RefreshSessionStore.Rotation rotation = sessionStore.rotate(request.getRefreshToken());
+        JwtPrincipal principal = rotation.principal();
 
-            // Update last login timestamp
-            user.setLastLoginAt(LocalDateTime.now());
-            userRepository.save(user);
-
-            // Cache user in Redis
-            redisTemplate.opsForValue().set("user:" + user.getId(), user);
-
-            AuthResponse response = new AuthResponse();
-            response.setToken(jwtService.generateToken(user));
-            response.setRole(user.getRole().name());
-            response.setRedirectUrl(getDashboardUrl(user.getRole()));
-            return response;
-            
-        } catch (BadCredentialsException e) {
-            // Check if the email exists in the system
-            boolean emailExists = userRepository.findByEmail(request.getEmail()).isPresent();
-            
-            if (emailExists) {
-                throw new RuntimeException("Incorrect password. Please try again.");
-            } else {
-                throw new RuntimeException("No account found with this email. Please sign up first.");
-            }
-        } catch (Exception e) {
-            // Re-throw other exceptions as they are
-            throw e;
-        }
+        AuthResponse response = new AuthResponse();
+        response.setToken(jwtService.generateToken(principal));
+        response.setRefreshToken(rotation.refreshToken());
+        response.setRole(principal.getRole().name());
+        response.setRedirectUrl(getDashboardUrl(principal.getRole()));
+        return response;
     }
 
-    public AuthResponse refreshToken(RefreshTokenRequest request) {
-        try {
-            // Extract username from refresh token
-            String username = jwtService.extractUsername(request.getRefreshToken());
-            
-            if (username == null) {
-                throw new RuntimeException("Invalid refresh token");
-            }
-            
-            User user = userRepository.findByEmail(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            // Validate the refresh token
-            if (!jwtService.isTokenValid(request.getRefreshToken(), user)) {
-                throw new RuntimeException("Invalid or expired refresh token");
+    /**
+     * Ends this device's session: when given, its refresh token can no longer be rotated, and the
+     * presented access token stops working at once. The refresh session goes first, so a stale or
+     * invalid access token can't leave it alive; such a token is already unusable and is skipped.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            sessionStore.revoke(refreshToken);
+        }
+        if (accessToken != null) {
+            Claims claims;
+            try {
+                claims = jwtService.parseValidatedClaims(accessToken);
+            } catch (RuntimeException e) {
+                return;
             }
-            
-            // Generate new access token
-            String newAccessToken = jwtService.generateToken(user);
-            
-            // Update user's last login
-            user.setLastLoginAt(LocalDateTime.now());
-            userRepository.save(user);
-            
-            // Cache updated user in Redis
-            redisTemplate.opsForValue().set("user:" + user.getId(), user);
-            
-            AuthResponse response = new AuthResponse();
-            response.setToken(newAccessToken);
-            response.setRole(user.getRole().name());
-            response.setRedirectUrl(getDashboardUrl(user.getRole()));
-            
-            return response;
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Token refresh failed: " + e.getMessage(), e);
+            tokenRevocationService.revokeToken(claims);
         }
     }
 
     public void verifyAccount(String tokenStr) {
-        Token token = tokenRepository.findByToken(tokenStr)
-                .orElseThrow(() -> new RuntimeException("Invalid or expired token"));
-
-        if (token.isUsed() || token.getExpiryDate().isBefore(LocalDateTime.now())) {
-            throw new RuntimeException("Token has expired or already been used");
-        }
-
-        User user = token.getUser();
-        user.setVerified(true);
-        userRepository.save(user);
-
-        token.setUsed(true);
-        tokenRepository.save(token);
+        String userId = tokenService.consume(tokenStr, TokenType.ACTIVATION);
+        String email = userRepository.setVerified(userId, true)
+                .orElseThrow(() -> new UserNotFoundException(userId));
+        userCache.evict(userId, email);
     }
 
     public void resendActivation(String email) {
+        checkAccountRateLimit(RateLimitedEndpoint.RESEND_ACTIVATION, email);
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -276,7 +257,7 @@ public class AuthService {
             throw new RuntimeException("Account is already verified");
         }
 
-        String activationToken = generateToken(user, TokenType.ACTIVATION);
+        String activationToken = tokenService.create(user, TokenType.ACTIVATION);
         String activationLink = frontendUrl + "/verify/" + activationToken;
         
         // Prepare template data
@@ -285,7 +266,7 @@ public class AuthService {
         templateData.put("supportEmail", supportEmail);
         templateData.put("currentYear", String.valueOf(Year.now().getValue()));
         
-        String emailContent = processEmailTemplate(activationEmailPath, templateData);
+        String emailContent = emailTemplateService.render(activationEmailPath, templateData);
         emailService.queueEmail(
                 email,
                 "Activate Your Premisave Account",
@@ -294,10 +275,17 @@ public class AuthService {
     }
 
     public void forgotPassword(String email) {
+        checkAccountRateLimit(RateLimitedEndpoint.FORGOT_PASSWORD, email);
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("No account found with this email"));
+        sendPasswordResetEmail(user);
+    }
 
-        String resetToken = generateToken(user, TokenType.RESET_PASSWORD);
+    /**
+     * Emails the user a single-use link to choose a new password.
+     */
+    public void sendPasswordResetEmail(User user) {
+        String resetToken = tokenService.create(user, TokenType.RESET_PASSWORD);
         String resetLink = frontendUrl + "/reset-password?token=" + resetToken;
         
         // Prepare template data
@@ -306,7 +294,7 @@ public class AuthService {
         templateData.put("supportEmail", supportEmail);
         templateData.put("currentYear", String.valueOf(Year.now().getValue()));
         
-        String emailContent = processEmailTemplate(resetPasswordEmailPath, templateData);
+        String emailContent = emailTemplateService.render(resetPasswordEmailPath, templateData);
         emailService.queueEmail(
                 user.getEmail(),
                 "Reset Your Premisave Password",
@@ -320,34 +308,23 @@ public class AuthService {
             throw new RuntimeException("New passwords do not match");
         }
 
-        // Find and validate token
-        Token token = tokenRepository.findByToken(request.getToken())
-                .orElseThrow(() -> new RuntimeException("Invalid or expired reset token"));
+        // Validate and use up the token
+        String userId = tokenService.consume(request.getToken(), TokenType.RESET_PASSWORD);
 
-        if (token.isUsed() || token.getExpiryDate().isBefore(LocalDateTime.now())) {
-            throw new RuntimeException("Reset token has expired or already been used");
-        }
-
-        if (token.getType() != TokenType.RESET_PASSWORD) {
-            throw new RuntimeException("Invalid token type");
-        }
+        // Update only the password field
+        String email = userRepository.setPassword(userId, passwordEncoder.encode(request.getNewPassword()))
+                .orElseThrow(() -> new UserNotFoundException(userId));
 
-        // Get user and update password
-        User user = token.getUser();
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        userRepository.save(user);
-
-        // Mark token as used
-        token.setUsed(true);
-        tokenRepository.save(token);
-
-        // Clear cached user
-        redisTemplate.delete("user:" + user.getId());
+        // Clear cached user and sign out every device
+        userCache.evict(userId, email);
+        tokenRevocationService.revokeUser(userId);
     }
 
     public void changePassword(ChangePasswordRequest request) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User user = (User) auth.getPrincipal();
+        // The principal may be built from token claims, so load the stored user
+        User user = userRepository.findByEmail(auth.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
         if (!passwordEncoder.matches(request.getOldPassword(), user.getPassword())) {
             throw new RuntimeException("Current password is incorrect");
@@ -357,66 +334,26 @@ public class AuthService {
             throw new RuntimeException("New passwords do not match");
         }
 
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        userRepository.save(user);
+        userRepository.setPassword(user.getId(), passwordEncoder.encode(request.getNewPassword()))
+                .orElseThrow(() -> new UserNotFoundException(user.getId()));
         
-        // Clear cached user
-        redisTemplate.delete("user:" + user.getId());
+        // Clear cached user and sign out every device
+        userCache.evict(user.getId(), user.getEmail());
+        tokenRevocationService.revokeUser(user.getId());
     }
 
-    private String generateToken(User user, TokenType type) {
-        String tokenValue = UUID.randomUUID().toString();
-
-        Token token = new Token();
-        token.setToken(tokenValue);
-        token.setType(type);
-        token.setExpiryDate(LocalDateTime.now().plus(24, ChronoUnit.HOURS));
-        token.setUsed(false);
-        token.setUser(user);
-
-        tokenRepository.save(token);
-        System.out.println("DEBUG: Token saved for user: " + user.getId());
-        return tokenValue;
+    private void checkAccountRateLimit(RateLimitedEndpoint endpoint, String email) {
+        // Per-IP limits are enforced by RateLimiterInterceptor; this stops one account being hammered from many IPs
+        if (email == null) {
+            return;
+        }
+        RateLimiter.Decision decision = rateLimiter.tryConsume(endpoint, RateLimiter.Scope.ACCOUNT, email);
+        if (!decision.allowed()) {
+            throw new RateLimitExceededException(decision);
+        }
     }
 
     private String getDashboardUrl(Role role) {
         return dashboardUrls.getOrDefault(role, frontendUrl + "/dashboard");
     }
-
-    private String readEmailTemplate(String templatePath) {
-        // Try with classpath prefix first
-        Resource resource = resourceLoader.getResource("classpath:" + templatePath);
-        
-        // If not found, try without the prefix (in case it's already included)
-        if (!resource.exists()) {
-            resource = resourceLoader.getResource("classpath:/" + templatePath);
-        }
-        
-        // If still not found, try as a file resource
-        if (!resource.exists()) {
-            resource = resourceLoader.getResource("file:src/main/resources/" + templatePath);
-        }
-        
-        if (!resource.exists()) {
-            throw new RuntimeException("Email template not found at any location: " + templatePath);
-        }
-        
-        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
-            return FileCopyUtils.copyToString(reader);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to read email template: " + templatePath, e);
-        }
-    }
-    
-    private String processEmailTemplate(String templatePath, Map<String, String> data) {
-        String template = readEmailTemplate(templatePath);
-        
-        // Replace placeholders in the format {{placeholder}}
-        for (Map.Entry<String, String> entry : data.entrySet()) {
-            String placeholder = "{{" + entry.getKey() + "}}";
-            template = template.replace(placeholder, entry.getValue());
-        }
-        
-        return template;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.premisave.auth.service;
+
+import com.premisave.auth.config.RabbitMQConfig;
+import com.premisave.auth.dto.EmailMessage;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class EmailQueueConsumer {
+
+    private final EmailService emailService;
+
+    public EmailQueueConsumer(EmailService emailService) {
+        this.emailService = emailService;
+    }
+
+    @RabbitListener(queues = RabbitMQConfig.EMAIL_QUEUE, containerFactory = "emailListenerContainerFactory")
+    public void consume(List<EmailMessage> messages) {
+        emailService.sendBatch(messages);
+    }
+}
@@ -1,6 +1,11 @@
 package com.premisave.auth.service;
 
+import com.premisave.auth.config.RabbitMQConfig;
+import com.premisave.auth.dto.EmailMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
@@ -8,41 +13,123 @@ import org.springframework.stereotype.Service;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
 @Service
 public class EmailService {
 
+    // Same header RepublishMessageRecoverer uses, so dead letters read alike however they got there
+    private static final String X_EXCEPTION_MESSAGE = "x-exception-message";
+
     private final JavaMailSender mailSender;
     private final RabbitTemplate rabbitTemplate;
+    private final SmtpTransportPool transportPool;
+    private final int maxRetries;
+    private final long retryInitialIntervalMs;
+    private final double retryMultiplier;
+    private final long retryMaxIntervalMs;
 
-    public EmailService(JavaMailSender mailSender, RabbitTemplate rabbitTemplate) {
+    public EmailService(JavaMailSender mailSender, RabbitTemplate rabbitTemplate, SmtpTransportPool transportPool,
+                        @Value("${email.queue.retry.max-retries:4}") int maxRetries,
+                        @Value("${email.queue.retry.initial-interval-ms:1000}") long retryInitialIntervalMs,
+                        @Value("${email.queue.retry.multiplier:2.0}") double retryMultiplier,
+                        @Value("${email.queue.retry.max-interval-ms:30000}") long retryMaxIntervalMs) {
         this.mailSender = mailSender;
         this.rabbitTemplate = rabbitTemplate;
+        this.transportPool = transportPool;
+        this.maxRetries = maxRetries;
+        this.retryInitialIntervalMs = retryInitialIntervalMs;
+        this.retryMultiplier = retryMultiplier;
+        this.retryMaxIntervalMs = retryMaxIntervalMs;
     }
 
     public void queueEmail(String to, String subject, String htmlContent) {
         try {
-            // Send email directly for now (simplify)
-            sendEmailDirectly(to, subject, htmlContent);
-            System.out.println("DEBUG: Email sent directly to: " + to);
-        } catch (Exception e) {
-            System.err.println("ERROR: Failed to send email to " + to + ": " + e.getMessage());
+            // Publish only; EmailQueueConsumer does the SMTP work off the request thread
+            rabbitTemplate.convertAndSend(RabbitMQConfig.EMAIL_QUEUE, new EmailMessage(to, subject, htmlContent));
+            log.debug("Email queued for: {}", to);
+        } catch (AmqpException e) {
+            log.error("Failed to queue email to {}: {}", to, e.getMessage());
             throw new RuntimeException("Failed to send email", e);
         }
     }
 
     public void sendEmailDirectly(String to, String subject, String htmlContent) {
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(mimeMessage);
-            System.out.println("SUCCESS: Email sent to: " + to);
+            transportPool.send(buildMimeMessage(to, subject, htmlContent));
+            log.info("Email sent to: {}", to);
         } catch (MessagingException e) {
-            System.err.println("ERROR: Failed to send email to " + to + ": " + e.getMessage());
+            log.error("Failed to send email to {}: {}", to, e.getMessage());
             throw new RuntimeException("Failed to send email: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Sends all messages over one pooled SMTP connection. Delivered messages are never sent again:
+     * each one that fails is republished on its own, to be retried after a backoff or, once out of
+     * retries, moved to the dead-letter queue. One that can't even be built goes there directly.
+     */
+    public void sendBatch(List<EmailMessage> messages) {
+        Map<MimeMessage, EmailMessage> built = new LinkedHashMap<>();
+        Map<EmailMessage, Exception> unbuildable = new LinkedHashMap<>();
+        for (EmailMessage message : messages) {
+            try {
+                built.put(buildMimeMessage(message.getTo(), message.getSubject(), message.getHtmlContent()), message);
+            } catch (MessagingException e) {
+                unbuildable.put(message, e);
+            }
+        }
+
+        // Throws if no connection could be opened, so the listener retries the batch and finally dead-letters it
+        Map<MimeMessage, Exception> failures = transportPool.sendAll(new ArrayList<>(built.keySet()));
+        unbuildable.forEach(this::deadLetter);
+        failures.forEach((mimeMessage, cause) -> retryLater(built.get(mimeMessage), cause));
+        if (failures.isEmpty() && unbuildable.isEmpty()) {
+            log.info("Sent batch of {} emails", built.size());
+        } else {
+            log.warn("Sent {} of {} emails in batch; {} will be retried or dead-lettered", built.size() - failures.size(),
+                    messages.size(), failures.size() + unbuildable.size());
+        }
+    }
+
+    private void retryLater(EmailMessage message, Exception cause) {
+        int failedAttempts = message.getFailedAttempts() + 1;
+        if (failedAttempts > maxRetries) {
+            deadLetter(message, cause);
+            return;
+        }
+        long delay = (long) Math.min(retryInitialIntervalMs * Math.pow(retryMultiplier, failedAttempts - 1),
+                retryMaxIntervalMs);
+        log.warn("Failed to send email to {} (attempt {}), retrying in {} ms: {}", message.getTo(), failedAttempts,
+                delay, cause.getMessage());
+        EmailMessage retry = new EmailMessage(message.getTo(), message.getSubject(), message.getHtmlContent(),
+                failedAttempts);
+        // The retry queue dead-letters the message back into email_queue when this TTL runs out
+        rabbitTemplate.convertAndSend(RabbitMQConfig.EMAIL_RETRY_QUEUE, retry, amqpMessage -> {
+            amqpMessage.getMessageProperties().setExpiration(String.valueOf(delay));
+            return amqpMessage;
+        });
+    }
+
+    private void deadLetter(EmailMessage message, Exception cause) {
+        log.error("Giving up on email to {} after {} failed attempts, moving it to {}: {}", message.getTo(),
+                message.getFailedAttempts() + 1, RabbitMQConfig.EMAIL_DEAD_LETTER_QUEUE, cause.getMessage());
+        rabbitTemplate.convertAndSend(RabbitMQConfig.EMAIL_DEAD_LETTER_QUEUE, message, amqpMessage -> {
+            amqpMessage.getMessageProperties().setHeader(X_EXCEPTION_MESSAGE, String.valueOf(cause.getMessage()));
+            return amqpMessage;
+        });
+    }
+
+    private MimeMessage buildMimeMessage(String to, String subject, String htmlContent) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(htmlContent, true);
+        return mimeMessage;
+    }
+}
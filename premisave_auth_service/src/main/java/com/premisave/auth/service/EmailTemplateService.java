@@ -0,0 +1,165 @@
+package com.premisave.auth.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileCopyUtils;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads email templates once and renders {{placeholder}} substitutions in a single pass.
+ * With hot reload enabled (dev only) a template is recompiled when its file changes.
+ */
+@Service
+@Slf4j
+public class EmailTemplateService {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final ResourceLoader resourceLoader;
+    private final Map<String, CompiledTemplate> templates = new ConcurrentHashMap<>();
+
+    @Value("${email.activation.path:templates/activation-email.html}")
+    private String activationEmailPath;
+
+    @Value("${email.reset-password.path:templates/reset-password-email.html}")
+    private String resetPasswordEmailPath;
+
+    @Value("${email.templates.hot-reload:false}")
+    private boolean hotReload;
+
+    public EmailTemplateService(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    public void init() {
+        // Fail fast on a missing template instead of on the first signup
+        templates.put(activationEmailPath, compile(activationEmailPath));
+        templates.put(resetPasswordEmailPath, compile(resetPasswordEmailPath));
+    }
+
+    public String render(String templatePath, Map<String, String> data) {
+        CompiledTemplate template = templates.computeIfAbsent(templatePath, this::compile);
+        if (hotReload && template.isStale()) {
+            template = compile(templatePath);
+            templates.put(templatePath, template);
+            log.debug("Reloaded email template: {}", templatePath);
+        }
+        return template.render(data);
+    }
+
+    private CompiledTemplate compile(String templatePath) {
+        Resource resource = resolve(templatePath);
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            return CompiledTemplate.parse(FileCopyUtils.copyToString(reader), resource, lastModified(resource));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read email template: " + templatePath, e);
+        }
+    }
+
+    private Resource resolve(String templatePath) {
+        // Try with classpath prefix first
+        Resource resource = resourceLoader.getResource("classpath:" + templatePath);
+
+        // If not found, try without the prefix (in case it's already included)
+        if (!resource.exists()) {
+            resource = resourceLoader.getResource("classpath:/" + templatePath);
+        }
+
+        // If still not found, try as a file resource
+        if (!resource.exists()) {
+            resource = resourceLoader.getResource("file:src/main/resources/" + templatePath);
+        }
+
+        if (!resource.exists()) {
+            throw new RuntimeException("Email template not found at any location: " + templatePath);
+        }
+        return resource;
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            // Resources inside a jar have no usable timestamp
+            return -1L;
+        }
+    }
+
+    /**
+     * A template split into alternating literal and placeholder segments.
+     */
+    static final class CompiledTemplate {
+
+        private final String[] literals;
+        private final String[] placeholders;
+        private final int literalLength;
+        private final Resource resource;
+        private final long lastModified;
+
+        private CompiledTemplate(String[] literals, String[] placeholders, Resource resource, long lastModified) {
+            this.literals = literals;
+            this.placeholders = placeholders;
+            this.resource = resource;
+            this.lastModified = lastModified;
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        static CompiledTemplate parse(String source, Resource resource, long lastModified) {
+            List<String> literals = new ArrayList<>();
+            List<String> placeholders = new ArrayList<>();
+            int position = 0;
+            while (true) {
+                int open = source.indexOf(OPEN, position);
+                int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+                if (close < 0) {
+                    literals.add(source.substring(position));
+                    break;
+                }
+                literals.add(source.substring(position, open));
+                placeholders.add(source.substring(open + OPEN.length(), close));
+                position = close + CLOSE.length();
+            }
+            return new CompiledTemplate(literals.toArray(String[]::new), placeholders.toArray(String[]::new),
+                    resource, lastModified);
+        }
+
+        String render(Map<String, String> data) {
+            String[] values = new String[placeholders.length];
+            int capacity = literalLength;
+            for (int i = 0; i < placeholders.length; i++) {
+                String value = data.get(placeholders[i]);
+                // Unknown placeholders are left in place, as the old String.replace loop did
+                values[i] = value != null ? value : OPEN + placeholders[i] + CLOSE;
+                capacity += values[i].length();
+            }
+
+            StringBuilder out = new StringBuilder(capacity);
+            for (int i = 0; i < placeholders.length; i++) {
+                out.append(literals[i]).append(values[i]);
+            }
+            return out.append(literals[placeholders.length]).toString();
+        }
+
+        boolean isStale() {
+            return lastModified >= 0 && EmailTemplateService.lastModified(resource) != lastModified;
+        }
+    }
+}
@@ -6,7 +6,9 @@ import com.premisave.auth.dto.PasswordChangeRequest;
 import com.premisave.auth.dto.ProfileUpdateRequest;
 import com.premisave.auth.dto.UserDto;
 import com.premisave.auth.entity.User;
+import com.premisave.auth.exception.UserNotFoundException;
 import com.premisave.auth.repository.UserRepository;
+import com.premisave.auth.security.TokenRevocationService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -27,6 +29,8 @@ public class ProfileService {
     private final UserRepository userRepository;
     private final Cloudinary cloudinary;
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final TokenRevocationService tokenRevocationService;
     
     // Allowed image content types
     private static final Set<String> ALLOWED_CONTENT_TYPES = new HashSet<>(Arrays.asList(
@@ -42,10 +46,13 @@ public class ProfileService {
     // Cloudinary folder
     private static final String CLOUDINARY_FOLDER = "premisave/profile-photos";
 
-    public ProfileService(UserRepository userRepository, Cloudinary cloudinary, PasswordEncoder passwordEncoder) {
+    public ProfileService(UserRepository userRepository, Cloudinary cloudinary, PasswordEncoder passwordEncoder,
+                          UserCache userCache, TokenRevocationService tokenRevocationService) {
         this.userRepository = userRepository;
         this.cloudinary = cloudinary;
         this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     public UserDto getCurrentUserProfile() {
@@ -56,16 +63,16 @@ public class ProfileService {
             log.debug("Getting profile for authenticated user with email: {}", principalName);
             
             // Find user by email (since that's what Spring Security uses for authentication)
-            User user = userRepository.findByEmail(principalName)
+            UserDto user = userCache.getByEmail(principalName)
                 .orElseThrow(() -> {
                     log.error("User not found with email: {}", principalName);
                     return new RuntimeException("User not found");
                 });
             
             log.debug("Found user - Display username: '{}', Email: '{}'", 
-                user.getDisplayUsername(), user.getEmail());
+                user.getUsername(), user.getEmail());
             
-            return convertToDto(user);
+            return user;
             
         } catch (Exception e) {
             log.error("Error getting current user profile: ", e);
@@ -106,6 +113,7 @@ public class ProfileService {
         }
         
         userRepository.save(user);
+        userCache.evict(user.getId(), user.getEmail());
         log.info("Profile updated for user: {}", user.getEmail());
     }
 
@@ -160,8 +168,9 @@ public class ProfileService {
                 ));
             
             String url = (String) uploadResult.get("secure_url");
-            user.setProfilePictureUrl(url);
-            userRepository.save(user);
+            userRepository.setProfilePictureUrl(user.getId(), url)
+                .orElseThrow(() -> new UserNotFoundException(user.getId()));
+            userCache.evict(user.getId(), user.getEmail());
             
             log.info("Profile picture uploaded for user: {} to folder: {}", user.getEmail(), CLOUDINARY_FOLDER);
             return url;
@@ -247,9 +256,11 @@ public class ProfileService {
         // Validate password strength
         validatePasswordStrength(newPassword);
         
-        // Encode and set new password
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        // Encode and set new password (single-field $set)
+        userRepository.setPassword(user.getId(), passwordEncoder.encode(newPassword))
+            .orElseThrow(() -> new UserNotFoundException(user.getId()));
+        userCache.evict(user.getId(), user.getEmail());
+        tokenRevocationService.revokeUser(user.getId());
         
         log.info("Password updated successfully for user: {}", user.getEmail());
     }
@@ -275,33 +286,4 @@ public class ProfileService {
             throw new RuntimeException("Password must contain at least one special character (@#$%^&+=!)");
         }
     }
-
-    private UserDto convertToDto(User user) {
-        UserDto dto = new UserDto();
-        dto.setId(user.getId().toString());
-        
-        // Get the display username (not the Spring Security username which is email)
-        dto.setUsername(user.getDisplayUsername()); // This will return "graham_admin"
-        
-        dto.setFirstName(user.getFirstName());
-        dto.setMiddleName(user.getMiddleName());
-        dto.setLastName(user.getLastName());
-        dto.setEmail(user.getEmail());
-        dto.setPhoneNumber(user.getPhoneNumber());
-        dto.setAddress1(user.getAddress1());
-        dto.setAddress2(user.getAddress2());
-        dto.setCountry(user.getCountry());
-        dto.setLanguage(user.getLanguage());
-        dto.setProfilePictureUrl(user.getProfilePictureUrl());
-        dto.setRole(user.getRole());
-        dto.setActive(user.isActive());
-        dto.setVerified(user.isVerified());
-        dto.setArchived(user.isArchived());
-        // Don't set password for security
-        
-        log.debug("Converted to DTO - Display Username: '{}', Email: '{}'", 
-            dto.getUsername(), dto.getEmail());
-        
-        return dto;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,283 @@
+package com.premisave.auth.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of long-lived, authenticated SMTP connections. Borrowers get a connected
+ * transport, so a batch of messages pays the TLS and AUTH handshake once instead of per recipient.
+ * Connections idle past the validation window are checked with NOOP before reuse, and those
+ * idle past the idle timeout are closed by a background sweep.
+ * <p>
+ * JavaMail's SMTP transport holds its monitor across socket I/O, which pins a virtual thread to
+ * its carrier for the whole send. Callers on virtual threads therefore hand the SMTP work to a
+ * small platform-thread pool, one thread per pooled connection, and park until it finishes.
+ */
+@Component
+@Slf4j
+public class SmtpTransportPool {
+
+    private final Session session;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final Duration idleTimeout;
+    private final Duration validateAfterIdle;
+    private final Duration borrowTimeout;
+
+    private final Semaphore permits;
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final ExecutorService platformSender;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${email.smtp-pool.max-size:4}") int maxSize,
+                             @Value("${email.smtp-pool.idle-timeout:5m}") Duration idleTimeout,
+                             @Value("${email.smtp-pool.validate-after-idle:30s}") Duration validateAfterIdle,
+                             @Value("${email.smtp-pool.borrow-timeout:30s}") Duration borrowTimeout) {
+        this.session = mailSender.getSession();
+        this.host = mailSender.getHost();
+        this.port = mailSender.getPort();
+        this.username = mailSender.getUsername();
+        this.password = mailSender.getPassword();
+        this.idleTimeout = idleTimeout;
+        this.validateAfterIdle = validateAfterIdle;
+        this.borrowTimeout = borrowTimeout;
+        this.permits = new Semaphore(maxSize, true);
+        // Threads are only started once a virtual-thread caller shows up
+        this.platformSender = Executors.newFixedThreadPool(maxSize,
+                Thread.ofPlatform().name("smtp-send-", 0).daemon().factory());
+    }
+
+    /**
+     * Sends every message over one pooled connection, reconnecting once if the server drops it
+     * mid-batch. Returns the messages that could not be sent, mapped to their failure.
+     */
+    public Map<MimeMessage, Exception> sendAll(List<MimeMessage> messages) {
+        try {
+            return offVirtualThread(() -> sendAllOnCurrentThread(messages));
+        } catch (MessagingException e) {
+            // Per-message failures are collected in the result, never thrown
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void send(MimeMessage message) throws MessagingException {
+        offVirtualThread(() -> {
+            sendOnCurrentThread(message);
+            return null;
+        });
+    }
+
+    private Map<MimeMessage, Exception> sendAllOnCurrentThread(List<MimeMessage> messages) {
+        Map<MimeMessage, Exception> failures = new LinkedHashMap<>();
+        if (messages.isEmpty()) {
+            return failures;
+        }
+
+        PooledTransport transport = borrow();
+        try {
+            for (MimeMessage message : messages) {
+                try {
+                    transport = send(transport, message);
+                } catch (MessagingException e) {
+                    failures.put(message, e);
+                }
+            }
+        } finally {
+            release(transport);
+        }
+        return failures;
+    }
+
+    private void sendOnCurrentThread(MimeMessage message) throws MessagingException {
+        PooledTransport transport = borrow();
+        try {
+            transport = send(transport, message);
+        } finally {
+            release(transport);
+        }
+    }
+
+    private PooledTransport send(PooledTransport transport, MimeMessage message) throws MessagingException {
+        message.saveChanges();
+        if (transport.closed) {
+            // An earlier reconnect in this batch failed; try again for this message
+            transport = open();
+        }
+        try {
+            transport.transport.sendMessage(message, message.getAllRecipients());
+            return transport;
+        } catch (MessagingException e) {
+            if (transport.transport.isConnected()) {
+                // The server rejected this message; the connection itself is fine
+                throw e;
+            }
+            // Connection dropped under us: replace it and retry this message once
+            close(transport);
+            PooledTransport fresh = open();
+            try {
+                fresh.transport.sendMessage(message, message.getAllRecipients());
+            } catch (MessagingException retryFailure) {
+                close(fresh);
+                throw retryFailure;
+            }
+            return fresh;
+        }
+    }
+
+    private <T> T offVirtualThread(Callable<T> work) throws MessagingException {
+        if (!Thread.currentThread().isVirtual()) {
+            try {
+                return work.call();
+            } catch (MessagingException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        Future<T> result = platformSender.submit(work);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while sending email", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MessagingException messagingException) {
+                throw messagingException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private PooledTransport borrow() {
+        try {
+            if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Timed out waiting for an SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for an SMTP connection", e);
+        }
+
+        try {
+            PooledTransport transport;
+            while ((transport = idle.pollFirst()) != null) {
+                if (isHealthy(transport)) {
+                    return transport;
+                }
+                close(transport);
+            }
+            return open();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw new RuntimeException("Failed to connect to SMTP server: " + e.getMessage(), e);
+        }
+    }
+
+    private void release(PooledTransport transport) {
+        try {
+            if (!transport.closed) {
+                transport.lastUsedNanos = System.nanoTime();
+                idle.offerFirst(transport);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean isHealthy(PooledTransport transport) {
+        long idleNanos = System.nanoTime() - transport.lastUsedNanos;
+        if (idleNanos >= idleTimeout.toNanos()) {
+            return false;
+        }
+        // A recently used connection is trusted; older ones get a NOOP round trip
+        return idleNanos < validateAfterIdle.toNanos() || transport.transport.isConnected();
+    }
+
+    private PooledTransport open() throws MessagingException {
+        Transport transport = session.getTransport("smtp");
+        transport.connect(host, port, username, password);
+        connectionsOpened.incrementAndGet();
+        log.debug("Opened SMTP connection to {}:{}", host, port);
+        return new PooledTransport(transport);
+    }
+
+    private void close(PooledTransport transport) {
+        transport.closed = true;
+        try {
+            transport.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${email.smtp-pool.eviction-interval:60s}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        Iterator<PooledTransport> iterator = idle.descendingIterator();
+        while (iterator.hasNext()) {
+            PooledTransport transport = iterator.next();
+            if (now - transport.lastUsedNanos >= idleTimeout.toNanos() && idle.remove(transport)) {
+                close(transport);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        platformSender.shutdown();
+        PooledTransport transport;
+        while ((transport = idle.pollFirst()) != null) {
+            close(transport);
+        }
+    }
+
+    long connectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    int idleConnections() {
+        return idle.size();
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private volatile long lastUsedNanos = System.nanoTime();
+        private volatile boolean closed;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
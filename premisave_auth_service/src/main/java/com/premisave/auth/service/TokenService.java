@@ -1,16 +1,119 @@
 package com.premisave.auth.service;
 
+import com.premisave.auth.entity.Token;
+import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.TokenType;
 import com.premisave.auth.repository.TokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Single access point for activation and reset tokens. Tokens live in Mongo by default, where
+ * a TTL index on {@code expiryDate} deletes them once expired; with {@code tokens.store=redis}
+ * they are plain keys that Redis expires natively.
+ */
 @Service
+@Slf4j
 public class TokenService {
 
+    private static final String REDIS_KEY_PREFIX = "token:";
+
     private final TokenRepository tokenRepository;
+    private final MongoTemplate mongoTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final boolean redisStore;
+    private final Duration expiry;
 
-    public TokenService(TokenRepository tokenRepository) {
+    public TokenService(TokenRepository tokenRepository,
+                        MongoTemplate mongoTemplate,
+                        StringRedisTemplate stringRedisTemplate,
+                        @Value("${tokens.store:mongo}") String store,
+                        @Value("${tokens.expiry:24h}") Duration expiry) {
         this.tokenRepository = tokenRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisStore = "redis".equalsIgnoreCase(store);
+        this.expiry = expiry;
     }
 
-    // Additional methods if needed
-}
\ No newline at end of file
+    public String create(User user, TokenType type) {
+        String tokenValue = UUID.randomUUID().toString();
+
+        if (redisStore) {
+            stringRedisTemplate.opsForValue().set(redisKey(type, tokenValue), user.getId(), expiry);
+            return tokenValue;
+        }
+
+        Token token = new Token();
+        token.setToken(tokenValue);
+        token.setType(type);
+        token.setExpiryDate(LocalDateTime.now().plus(expiry));
+        token.setUsed(false);
+        token.setUser(user);
+        tokenRepository.save(token);
+        return tokenValue;
+    }
+
+    /**
+     * Atomically marks an unused, unexpired token of the given type as used and returns the id
+     * of the user it was issued to. Fails if no such token exists, so a token works exactly once.
+     */
+    public String consume(String tokenValue, TokenType type) {
+        if (redisStore) {
+            // GETDEL: the first caller gets the user id, any replay finds nothing
+            String userId = stringRedisTemplate.opsForValue().getAndDelete(redisKey(type, tokenValue));
+            if (userId == null) {
+                throw new RuntimeException("Invalid or expired token");
+            }
+            return userId;
+        }
+
+        // One conditional findAndModify: of two concurrent clicks only one matches "used: false"
+        Query query = Query.query(Criteria.where("token").is(tokenValue)
+                .and("type").is(type.name())
+                .and("used").is(false)
+                .and("expiryDate").gt(new Date()));
+        query.fields().include("user");
+        Document token = mongoTemplate.findAndModify(query, Update.update("used", true), Document.class,
+                mongoTemplate.getCollectionName(Token.class));
+        if (token == null) {
+            throw new RuntimeException("Invalid or expired token");
+        }
+
+        // Read the raw reference rather than resolving the @DocumentReference with another query
+        Object userRef = token.get("user");
+        return userRef instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(userRef);
+    }
+
+    /**
+     * Used tokens are dead weight until their TTL passes; drop them early to keep the working set small.
+     */
+    @Scheduled(fixedDelayString = "${tokens.purge-interval:1h}")
+    public void purgeUsed() {
+        if (redisStore) {
+            return;
+        }
+        long purged = tokenRepository.deleteByUsedTrue();
+        if (purged > 0) {
+            log.info("Purged {} used tokens", purged);
+        }
+    }
+
+    private static String redisKey(TokenType type, String tokenValue) {
+        return REDIS_KEY_PREFIX + type.name().toLowerCase() + ":" + tokenValue;
+    }
+}
@@ -0,0 +1,169 @@
+package com.premisave.auth.service;
+
+import com.premisave.auth.dto.BulkUserRequest;
+import com.premisave.auth.dto.BulkUserResult;
+import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.BulkUserAction;
+import com.premisave.auth.security.TokenRevocationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Applies one admin action to many users. Targets are processed in chunks: each chunk is one
+ * projected read (to learn which ids exist and their emails), one updateMany, and one multi-key
+ * Redis delete, and its per-user results are streamed back as NDJSON before the next chunk.
+ */
+@Service
+@Slf4j
+public class UserBulkService {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final UserCache userCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final JsonMapper jsonMapper;
+
+    public UserBulkService(MongoTemplate mongoTemplate, UserCache userCache, TokenRevocationService tokenRevocationService,
+                           JsonMapper jsonMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.userCache = userCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Checks the request up front so a bad one fails with 400 before the streaming response starts.
+     */
+    public void validate(BulkUserRequest request) {
+        if (request.getAction() == BulkUserAction.CHANGE_ROLE && request.getRole() == null) {
+            throw new RuntimeException("Role is required for CHANGE_ROLE");
+        }
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (!hasIds && filterCriteria(request.getFilter()).getCriteriaObject().isEmpty()) {
+            // An empty filter would match every account
+            throw new RuntimeException("Either ids or a non-empty filter is required");
+        }
+    }
+
+    public void execute(BulkUserRequest request, OutputStream outputStream) throws IOException {
+        Update update = update(request);
+        boolean revokeSessions = revokesSessions(request.getAction());
+        OutputStream out = new BufferedOutputStream(outputStream);
+        int updated = 0;
+
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            List<String> ids = request.getIds().stream().distinct().toList();
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                updated += applyChunk(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())), update, revokeSessions, out);
+            }
+        } else {
+            Query query = new Query(filterCriteria(request.getFilter()));
+            query.fields().include("id");
+            query.cursorBatchSize(CHUNK_SIZE);
+            try (Stream<User> users = mongoTemplate.stream(query, User.class)) {
+                Iterator<User> iterator = users.iterator();
+                List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+                while (iterator.hasNext()) {
+                    chunk.add(iterator.next().getId());
+                    if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                        updated += applyChunk(chunk, update, revokeSessions, out);
+                        chunk.clear();
+                    }
+                }
+            }
+        }
+
+        out.flush();
+        log.info("Bulk {} applied to {} users", request.getAction(), updated);
+    }
+
+    private int applyChunk(List<String> ids, Update update, boolean revokeSessions, OutputStream out)
+            throws IOException {
+        Query existing = Query.query(Criteria.where("id").in(ids));
+        existing.fields().include("id", "email");
+        List<User> users = mongoTemplate.find(existing, User.class);
+
+        Set<String> found = new HashSet<>();
+        for (User user : users) {
+            found.add(user.getId());
+        }
+
+        if (!found.isEmpty()) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("id").in(found)), update, User.class);
+            // One DEL and one invalidation broadcast for the whole chunk
+            userCache.evictAll(users);
+            if (revokeSessions) {
+                tokenRevocationService.revokeUsers(found);
+            }
+        }
+
+        for (String id : ids) {
+            out.write(jsonMapper.writeValueAsBytes(new BulkUserResult(id, found.contains(id) ? "UPDATED" : "NOT_FOUND")));
+            out.write('\n');
+        }
+        return found.size();
+    }
+
+    // Sessions carry role and status claims; changes that take access away must end them
+    private static boolean revokesSessions(BulkUserAction action) {
+        return switch (action) {
+            case DEACTIVATE, ARCHIVE, UNVERIFY, CHANGE_ROLE -> true;
+            case ACTIVATE, UNARCHIVE, VERIFY -> false;
+        };
+    }
+
+    private static Update update(BulkUserRequest request) {
+        Update update = switch (request.getAction()) {
+            case ACTIVATE -> Update.update("active", true);
+            case DEACTIVATE -> Update.update("active", false);
+            case ARCHIVE -> Update.update("archived", true);
+            case UNARCHIVE -> Update.update("archived", false);
+            case VERIFY -> Update.update("verified", true);
+            case UNVERIFY -> Update.update("verified", false);
+            case CHANGE_ROLE -> Update.update("role", request.getRole());
+        };
+        return update.set("updatedAt", LocalDateTime.now());
+    }
+
+    private static Criteria filterCriteria(BulkUserRequest.Filter filter) {
+        Criteria criteria = new Criteria();
+        if (filter == null) {
+            return criteria;
+        }
+        if (filter.getActive() != null) {
+            criteria.and("active").is(filter.getActive());
+        }
+        if (filter.getArchived() != null) {
+            criteria.and("archived").is(filter.getArchived());
+        }
+        if (filter.getVerified() != null) {
+            criteria.and("verified").is(filter.getVerified());
+        }
+        if (filter.getRole() != null) {
+            criteria.and("role").is(filter.getRole());
+        }
+        if (filter.getEmailDomain() != null && !filter.getEmailDomain().isBlank()) {
+            // Anchored at the end and quoted, so the input is matched literally
+            criteria.and("email").regex("@" + Pattern.quote(filter.getEmailDomain().trim()) + "$", "i");
+        }
+        return criteria;
+    }
+}
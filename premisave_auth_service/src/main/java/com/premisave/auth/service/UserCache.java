@@ -0,0 +1,181 @@
+package com.premisave.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.premisave.auth.dto.UserDto;
+import com.premisave.auth.entity.User;
+import com.premisave.auth.mapper.UserMapper;
+import com.premisave.auth.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Two-level cache of users as {@link UserDto} (never the password hash): a short-lived local
+ * near-cache in front of Redis, in front of MongoDB. Reads go through both levels and fill
+ * them on a miss. Evictions delete the Redis entries and are broadcast on a pub/sub channel,
+ * so every node drops its local copy.
+ */
+@Component
+@Slf4j
+public class UserCache implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "user-cache:invalidate";
+    private static final String KEY_PREFIX = "user:";
+    private static final String EMAIL_KEY_PREFIX = "user:email:";
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration ttl;
+
+    private final Cache<String, UserDto> localById;
+    private final Cache<String, String> localIdByEmail;
+
+    public UserCache(UserRepository userRepository,
+                     UserMapper userMapper,
+                     RedisTemplate<String, Object> redisTemplate,
+                     StringRedisTemplate stringRedisTemplate,
+                     @Value("${cache.user.ttl:15m}") Duration ttl,
+                     @Value("${cache.user.local-ttl:1m}") Duration localTtl,
+                     @Value("${cache.user.local-max-size:10000}") long localMaxSize) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.ttl = ttl;
+        this.localById = Caffeine.newBuilder().maximumSize(localMaxSize).expireAfterWrite(localTtl).build();
+        this.localIdByEmail = Caffeine.newBuilder().maximumSize(localMaxSize).expireAfterWrite(localTtl).build();
+    }
+
+    public Optional<UserDto> getById(String id) {
+        UserDto local = localById.getIfPresent(id);
+        if (local != null) {
+            return Optional.of(local);
+        }
+
+        UserDto cached = readRedis(KEY_PREFIX + id) instanceof UserDto dto ? dto : null;
+        if (cached != null) {
+            cacheLocally(cached);
+            return Optional.of(cached);
+        }
+
+        return userRepository.findById(id).map(this::put);
+    }
+
+    public Optional<UserDto> getByEmail(String email) {
+        String id = localIdByEmail.getIfPresent(email);
+        if (id == null && readRedis(EMAIL_KEY_PREFIX + email) instanceof String cachedId) {
+            id = cachedId;
+        }
+        if (id != null) {
+            Optional<UserDto> user = getById(id);
+            // Guard against an email index entry that outlived an email change
+            if (user.isPresent() && email.equals(user.get().getEmail())) {
+                return user;
+            }
+        }
+
+        return userRepository.findByEmail(email).map(this::put);
+    }
+
+    /**
+     * Write-through after the user has been saved.
+     */
+    public UserDto put(User user) {
+        UserDto dto = userMapper.toDto(user);
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + dto.getId(), dto, ttl);
+            redisTemplate.opsForValue().set(EMAIL_KEY_PREFIX + dto.getEmail(), dto.getId(), ttl);
+        } catch (RuntimeException e) {
+            log.warn("Could not write user {} to Redis: {}", dto.getId(), e.getMessage());
+        }
+        cacheLocally(dto);
+        return dto;
+    }
+
+    public void evict(String id, String email) {
+        evict(List.of(new CacheKey(id, email)));
+    }
+
+    public void evictAll(Collection<User> users) {
+        evict(users.stream().map(user -> new CacheKey(user.getId(), user.getEmail())).toList());
+    }
+
+    private void evict(List<CacheKey> cacheKeys) {
+        if (cacheKeys.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(cacheKeys.size() * 2);
+        StringBuilder message = new StringBuilder();
+        for (CacheKey cacheKey : cacheKeys) {
+            evictLocally(cacheKey.id(), cacheKey.email());
+            if (cacheKey.id() != null) {
+                keys.add(KEY_PREFIX + cacheKey.id());
+            }
+            if (cacheKey.email() != null) {
+                keys.add(EMAIL_KEY_PREFIX + cacheKey.email());
+            }
+            message.append(Objects.toString(cacheKey.id(), "")).append('\t')
+                    .append(Objects.toString(cacheKey.email(), "")).append('\n');
+        }
+
+        try {
+            // One multi-key DEL and one broadcast, however many users changed
+            redisTemplate.delete(keys);
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, message.toString());
+        } catch (RuntimeException e) {
+            // Other nodes fall back to their local TTL
+            log.warn("Could not broadcast user cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        for (String line : new String(message.getBody(), StandardCharsets.UTF_8).split("\n")) {
+            String[] idAndEmail = line.split("\t", -1);
+            if (idAndEmail.length == 2) {
+                evictLocally(idAndEmail[0], idAndEmail[1]);
+            }
+        }
+    }
+
+    private void cacheLocally(UserDto dto) {
+        localById.put(dto.getId(), dto);
+        localIdByEmail.put(dto.getEmail(), dto.getId());
+    }
+
+    private void evictLocally(String id, String email) {
+        if (id != null && !id.isEmpty()) {
+            localById.invalidate(id);
+        }
+        if (email != null && !email.isEmpty()) {
+            localIdByEmail.invalidate(email);
+        }
+    }
+
+    private Object readRedis(String key) {
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (RuntimeException e) {
+            log.warn("Could not read {} from Redis: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private record CacheKey(String id, String email) {
+    }
+}
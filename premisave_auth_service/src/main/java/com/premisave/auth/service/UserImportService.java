@@ -0,0 +1,353 @@
+package com.premisave.auth.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.premisave.auth.dto.UserDto;
+import com.premisave.auth.dto.UserImportResult;
+import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.Language;
+import com.premisave.auth.enums.Role;
+import com.premisave.auth.mapper.UserMapper;
+import com.premisave.auth.security.BoundedPasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports users from CSV (with a header row) or NDJSON. Rows are read incrementally and handled
+ * in batches: duplicates are found with one $in lookup per unique field, passwords are hashed on
+ * the bounded hashing executor, and the batch is inserted with one ordered bulk write. Every row
+ * gets a result line; a bad row never aborts the import.
+ * <p>
+ * Rows without a password get a random one that is never stored in clear or returned, and the
+ * user is emailed a reset link to choose their own.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int BATCH_SIZE = 500;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final MongoTemplate mongoTemplate;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final JsonMapper jsonMapper;
+    private final UserMapper userMapper;
+    private final AuthService authService;
+
+    public UserImportService(MongoTemplate mongoTemplate, BoundedPasswordEncoder passwordEncoder,
+                             JsonMapper jsonMapper, UserMapper userMapper, AuthService authService) {
+        this.mongoTemplate = mongoTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.jsonMapper = jsonMapper;
+        this.userMapper = userMapper;
+        this.authService = authService;
+    }
+
+    public void importUsers(Format format, InputStream input, OutputStream outputStream) throws IOException {
+        OutputStream out = new BufferedOutputStream(outputStream);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String[] header = null;
+        if (format == Format.CSV) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                out.flush();
+                return;
+            }
+            header = parseCsvLine(headerLine).toArray(String[]::new);
+        }
+
+        List<Row> batch = new ArrayList<>(BATCH_SIZE);
+        long rowNumber = 0;
+        long created = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            Row row = new Row(++rowNumber);
+            try {
+                row.dto = format == Format.CSV
+                        ? fromCsv(header, parseCsvLine(line))
+                        : jsonMapper.readerForUpdating(newRowDto()).readValue(line);
+            } catch (JacksonException | IllegalArgumentException e) {
+                row.fail("FAILED", "Unparseable row: " + e.getMessage());
+            }
+            batch.add(row);
+            if (batch.size() == BATCH_SIZE) {
+                created += processBatch(batch, out);
+                batch.clear();
+            }
+        }
+        created += processBatch(batch, out);
+        out.flush();
+        log.info("Imported {} of {} users", created, rowNumber);
+    }
+
+    private long processBatch(List<Row> batch, OutputStream out) throws IOException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        validate(batch);
+        removeDuplicates(batch);
+
+        List<Row> pending = batch.stream().filter(row -> row.status == null).collect(Collectors.toList());
+        hashPasswords(pending);
+        for (Row row : pending) {
+            row.user = toUser(row);
+        }
+        long created = insertOrdered(pending);
+        sendPasswordSetupEmails(pending);
+
+        for (Row row : batch) {
+            String email = row.dto != null ? row.dto.getEmail() : null;
+            out.write(jsonMapper.writeValueAsBytes(new UserImportResult(row.number, email,
+                    row.status != null ? row.status : "CREATED", row.message)));
+            out.write('\n');
+        }
+        return created;
+    }
+
+    private void validate(List<Row> batch) {
+        for (Row row : batch) {
+            if (row.status != null) {
+                continue;
+            }
+            String email = row.dto.getEmail();
+            if (email == null || !email.contains("@")) {
+                row.fail("FAILED", "A valid email is required");
+            } else {
+                // Kept as typed, like signup and createUser: lookups and the unique index are case-sensitive
+                row.dto.setEmail(email.trim());
+            }
+        }
+    }
+
+    /**
+     * Skips rows whose email or username already exists, in the database or earlier in this batch.
+     * Earlier batches are already inserted, so the database lookup covers them.
+     */
+    private void removeDuplicates(List<Row> batch) {
+        Set<String> emails = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        for (Row row : batch) {
+            if (row.status == null) {
+                emails.add(row.dto.getEmail());
+                if (row.dto.getUsername() != null) {
+                    usernames.add(row.dto.getUsername());
+                }
+            }
+        }
+        Set<String> takenEmails = existing("email", emails);
+        Set<String> takenUsernames = existing("username", usernames);
+
+        for (Row row : batch) {
+            if (row.status != null) {
+                continue;
+            }
+            if (!takenEmails.add(row.dto.getEmail())) {
+                row.fail("SKIPPED", "Email already exists");
+            } else if (row.dto.getUsername() != null && !takenUsernames.add(row.dto.getUsername())) {
+                row.fail("SKIPPED", "Username already exists");
+            }
+        }
+    }
+
+    private Set<String> existing(String field, Set<String> values) {
+        if (values.isEmpty()) {
+            return new HashSet<>();
+        }
+        Query query = Query.query(Criteria.where(field).in(values));
+        query.fields().include(field);
+        return mongoTemplate.find(query, User.class).stream()
+                .map(user -> "email".equals(field) ? user.getEmail() : user.getDisplayUsername())
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private void hashPasswords(List<Row> rows) {
+        List<String> rawPasswords = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            row.generatedPassword = row.dto.getPassword() == null || row.dto.getPassword().isBlank();
+            rawPasswords.add(row.generatedPassword ? randomPassword() : row.dto.getPassword());
+        }
+        List<String> encoded = passwordEncoder.encodeAll(rawPasswords);
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).encodedPassword = encoded.get(i);
+        }
+    }
+
+    /**
+     * Inserts rows in order. An ordered bulk write stops at the first error, so the failing row is
+     * reported and the remainder is retried.
+     */
+    private long insertOrdered(List<Row> rows) {
+        long created = 0;
+        int from = 0;
+        while (from < rows.size()) {
+            List<Row> remaining = rows.subList(from, rows.size());
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, User.class);
+            bulk.insert(remaining.stream().map(row -> row.user).collect(Collectors.toList()));
+            try {
+                bulk.execute();
+                return created + remaining.size();
+            } catch (BulkOperationException e) {
+                BulkWriteError error = e.getErrors().get(0);
+                created += error.getIndex();
+                remaining.get(error.getIndex()).fail("FAILED", error.getMessage());
+                from += error.getIndex() + 1;
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Users imported without a password can't sign in until they follow the emailed reset link.
+     */
+    private void sendPasswordSetupEmails(List<Row> rows) {
+        for (Row row : rows) {
+            if (row.status != null || !row.generatedPassword) {
+                continue;
+            }
+            try {
+                authService.sendPasswordResetEmail(row.user);
+                row.message = "Password setup email sent";
+            } catch (RuntimeException e) {
+                log.warn("Could not send password setup email to {}: {}", row.user.getEmail(), e.getMessage());
+                row.message = "Password setup email could not be sent; the user can request a reset";
+            }
+        }
+    }
+
+    private User toUser(Row row) {
+        User user = userMapper.toEntity(row.dto);
+        // Assigned up front so the user can be referenced, e.g. by a reset token, once inserted
+        user.setId(new ObjectId().toHexString());
+        if (user.getRole() == null) {
+            user.setRole(Role.CLIENT);
+        }
+        user.setPassword(row.encodedPassword);
+        return user;
+    }
+
+    private static String randomPassword() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * The values a row starts from in either format; fields it leaves out keep these defaults.
+     * Active matches the {@link User} default, so a row without an {@code active} field can sign in.
+     */
+    private static UserDto newRowDto() {
+        UserDto dto = new UserDto();
+        dto.setActive(true);
+        return dto;
+    }
+
+    private static UserDto fromCsv(String[] header, List<String> values) {
+        UserDto dto = newRowDto();
+        for (int i = 0; i < header.length && i < values.size(); i++) {
+            String value = values.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (header[i].trim()) {
+                case "email" -> dto.setEmail(value);
+                case "username" -> dto.setUsername(value);
+                case "firstName" -> dto.setFirstName(value);
+                case "middleName" -> dto.setMiddleName(value);
+                case "lastName" -> dto.setLastName(value);
+                case "phoneNumber" -> dto.setPhoneNumber(value);
+                case "address1" -> dto.setAddress1(value);
+                case "address2" -> dto.setAddress2(value);
+                case "country" -> dto.setCountry(value);
+                case "language" -> dto.setLanguage(Language.valueOf(value.toUpperCase(Locale.ROOT)));
+                case "profilePictureUrl" -> dto.setProfilePictureUrl(value);
+                case "role" -> dto.setRole(Role.valueOf(value.toUpperCase(Locale.ROOT)));
+                case "password" -> dto.setPassword(value);
+                case "active" -> dto.setActive(Boolean.parseBoolean(value));
+                case "verified" -> dto.setVerified(Boolean.parseBoolean(value));
+                case "archived" -> dto.setArchived(Boolean.parseBoolean(value));
+                default -> {
+                    // Unknown columns are ignored
+                }
+            }
+        }
+        return dto;
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields and "" escapes. Quoted fields may not span lines.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static final class Row {
+        private final long number;
+        private UserDto dto;
+        private String encodedPassword;
+        private boolean generatedPassword;
+        private User user;
+        private String status;
+        private String message;
+
+        private Row(long number) {
+            this.number = number;
+        }
+
+        private void fail(String status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+    }
+}
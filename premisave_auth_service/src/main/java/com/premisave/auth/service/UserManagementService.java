@@ -1,64 +1,68 @@
 package com.premisave.auth.service;
 
 import com.premisave.auth.dto.UserDto;
+import com.premisave.auth.dto.UserPage;
 import com.premisave.auth.dto.UserSearchRequest;
 import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.Role;
+import com.premisave.auth.exception.UserNotFoundException;
+import com.premisave.auth.mapper.UserMapper;
 import com.premisave.auth.repository.UserRepository;
+import com.premisave.auth.security.TokenRevocationService;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class UserManagementService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final int EXPORT_CURSOR_BATCH_SIZE = 500;
+    private static final String USERS_COLLECTION = "users";
+
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final MongoTemplate mongoTemplate;
+    private final JsonMapper jsonMapper;
+    private final UserSearchService userSearchService;
 
-    public UserManagementService(UserRepository userRepository, ModelMapper modelMapper, PasswordEncoder passwordEncoder) {
+    public UserManagementService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder,
+                                 UserCache userCache, MongoTemplate mongoTemplate, JsonMapper jsonMapper,
+                                 UserSearchService userSearchService, TokenRevocationService tokenRevocationService) {
         this.userRepository = userRepository;
-        this.modelMapper = modelMapper;
+        this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
-        
-        // Configure ModelMapper to handle our custom mappings
-        configureModelMapper();
-    }
-    
-    private void configureModelMapper() {
-        // Custom mapping for User -> UserDto
-        modelMapper.createTypeMap(User.class, UserDto.class)
-            .addMappings(mapper -> {
-                // Map displayUsername to username in DTO
-                mapper.map(User::getDisplayUsername, UserDto::setUsername);
-                // Map email field to email in DTO
-                mapper.map(User::getEmail, UserDto::setEmail);
-                // Don't map password for security
-                mapper.skip(UserDto::setPassword);
-            });
-            
-        // Custom mapping for UserDto -> User
-        modelMapper.createTypeMap(UserDto.class, User.class)
-            .addMappings(mapper -> {
-                // Map username from DTO to displayUsername in User
-                mapper.map(UserDto::getUsername, User::setDisplayUsername);
-                // Map email from DTO to email in User
-                mapper.map(UserDto::getEmail, User::setEmail);
-                // Handle password separately
-                mapper.skip(User::setPassword);
-            });
+        this.userCache = userCache;
+        this.mongoTemplate = mongoTemplate;
+        this.jsonMapper = jsonMapper;
+        this.userSearchService = userSearchService;
+        this.tokenRevocationService = tokenRevocationService;
+
     }
-    
-    public List<UserDto> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return users.stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList());
+
+    public UserPage getAllUsers(String cursor, int limit) {
+        return findPage(new Criteria(), cursor, limit);
     }
 
     @Transactional
@@ -77,30 +81,7 @@ public class UserManagementService {
         }
         
         // Create new user
-        User user = new User();
-        
-        // Set display username
-        if (userDto.getUsername() != null) {
-            user.setDisplayUsername(userDto.getUsername());
-        }
-        
-        // Set email
-        user.setEmail(userDto.getEmail());
-        
-        // Set other fields
-        user.setFirstName(userDto.getFirstName());
-        user.setMiddleName(userDto.getMiddleName());
-        user.setLastName(userDto.getLastName());
-        user.setPhoneNumber(userDto.getPhoneNumber());
-        user.setAddress1(userDto.getAddress1());
-        user.setAddress2(userDto.getAddress2());
-        user.setCountry(userDto.getCountry());
-        user.setLanguage(userDto.getLanguage());
-        user.setProfilePictureUrl(userDto.getProfilePictureUrl());
-        user.setRole(userDto.getRole());
-        user.setActive(userDto.isActive());
-        user.setVerified(userDto.isVerified());
-        user.setArchived(userDto.isArchived());
+        User user = userMapper.toEntity(userDto);
         
         // Handle password
         if (userDto.getPassword() != null && !userDto.getPassword().trim().isEmpty()) {
@@ -113,7 +94,7 @@ public class UserManagementService {
         user = userRepository.save(user);
         log.info("User created successfully with ID: {}", user.getId());
         
-        return convertToDto(user);
+        return userMapper.toDto(user);
     }
 
     @Transactional
@@ -121,6 +102,7 @@ public class UserManagementService {
         log.info("Updating user with ID: {}", id);
         
         User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
+        String originalEmail = user.getEmail();
         
         // Check if email is being changed and if it already exists
         if (userDto.getEmail() != null && !user.getEmail().equals(userDto.getEmail())) {
@@ -161,9 +143,12 @@ public class UserManagementService {
         }
         
         user = userRepository.save(user);
+        userCache.evict(id, originalEmail);
+        // Role, status or password may have changed; make every device sign in again
+        tokenRevocationService.revokeUser(id);
         log.info("User updated successfully with ID: {}", user.getId());
         
-        return convertToDto(user);
+        return userMapper.toDto(user);
     }
 
     @Transactional
@@ -171,76 +156,74 @@ public class UserManagementService {
         log.info("Deleting user with ID: {}", id);
         User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
         userRepository.delete(user);
+        userCache.evict(id, user.getEmail());
+        tokenRevocationService.revokeUser(id);
         log.info("User deleted successfully");
     }
 
     @Transactional
     public void archiveUser(String id) {
         log.info("Archiving user with ID: {}", id);
-        User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
-        user.setArchived(true);
-        userRepository.save(user);
+        String email = userRepository.setArchived(id, true).orElseThrow(() -> new UserNotFoundException(id));
+        userCache.evict(id, email);
+        tokenRevocationService.revokeUser(id);
         log.info("User archived successfully");
     }
 
     @Transactional
     public void unarchiveUser(String id) {
         log.info("Unarchiving user with ID: {}", id);
-        User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
-        user.setArchived(false);
-        userRepository.save(user);
+        String email = userRepository.setArchived(id, false).orElseThrow(() -> new UserNotFoundException(id));
+        userCache.evict(id, email);
         log.info("User unarchived successfully");
     }
 
     @Transactional
     public void activateUser(String id) {
         log.info("Activating user with ID: {}", id);
-        User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
-        user.setActive(true);
-        userRepository.save(user);
+        String email = userRepository.setActive(id, true).orElseThrow(() -> new UserNotFoundException(id));
+        userCache.evict(id, email);
         log.info("User activated successfully");
     }
 
     @Transactional
     public void deactivateUser(String id) {
         log.info("Deactivating user with ID: {}", id);
-        User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
-        user.setActive(false);
-        userRepository.save(user);
+        String email = userRepository.setActive(id, false).orElseThrow(() -> new UserNotFoundException(id));
+        userCache.evict(id, email);
+        tokenRevocationService.revokeUser(id);
         log.info("User deactivated successfully");
     }
 
     @Transactional
     public void verifyUser(String id) {
         log.info("Verifying user with ID: {}", id);
-        User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
-        user.setVerified(true);
-        userRepository.save(user);
+        String email = userRepository.setVerified(id, true).orElseThrow(() -> new UserNotFoundException(id));
+        userCache.evict(id, email);
         log.info("User verified successfully");
     }
 
     @Transactional
     public void unverifyUser(String id) {
         log.info("Unverifying user with ID: {}", id);
-        User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
-        user.setVerified(false);
-        userRepository.save(user);
+        String email = userRepository.setVerified(id, false).orElseThrow(() -> new UserNotFoundException(id));
+        userCache.evict(id, email);
+        tokenRevocationService.revokeUser(id);
         log.info("User unverified successfully");
     }
 
     public List<UserDto> searchUsers(UserSearchRequest request) {
         log.info("Searching users with query: {}", request.getQuery());
-        List<User> users = userRepository.searchUsers(request.getQuery());
+        List<User> users = userSearchService.search(request);
         return users.stream()
-                .map(this::convertToDto)
+                .map(userMapper::toDto)
                 .collect(Collectors.toList());
     }
 
     @Transactional
     public void updatePassword(String id, String newPassword) {
         log.info("Updating password for user with ID: {}", id);
-        User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
-        
+
         if (newPassword == null || newPassword.trim().isEmpty()) {
             throw new IllegalArgumentException("Password cannot be empty");
         }
@@ -248,35 +231,36 @@ public class UserManagementService {
         // Validate password strength
         validatePasswordStrength(newPassword);
         
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
-        log.info("Password updated successfully for user: {}", user.getEmail());
+        String email = userRepository.setPassword(id, passwordEncoder.encode(newPassword))
+                .orElseThrow(() -> new UserNotFoundException(id));
+        userCache.evict(id, email);
+        tokenRevocationService.revokeUser(id);
+        log.info("Password updated successfully for user: {}", email);
     }
 
     @Transactional
     public void resetPassword(String id) {
         log.info("Resetting password for user with ID: {}", id);
-        User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
-        
+
         // Generate a temporary password
         String temporaryPassword = "TempPassword123!";
-        user.setPassword(passwordEncoder.encode(temporaryPassword));
-        
-        userRepository.save(user);
-        log.info("Password reset successfully for user: {}", user.getEmail());
+        String email = userRepository.setPassword(id, passwordEncoder.encode(temporaryPassword))
+                .orElseThrow(() -> new UserNotFoundException(id));
+
+        userCache.evict(id, email);
+        tokenRevocationService.revokeUser(id);
+        log.info("Password reset successfully for user: {}", email);
         // TODO: Send email notification with temporary password
     }
 
     public UserDto getUserById(String id) {
         log.debug("Getting user by ID: {}", id);
-        User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
-        return convertToDto(user);
+        return userCache.getById(id).orElseThrow(() -> new RuntimeException("User not found"));
     }
 
     public UserDto getUserByEmail(String email) {
         log.debug("Getting user by email: {}", email);
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
-        return convertToDto(user);
+        return userCache.getByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
     }
 
     public boolean existsByEmail(String email) {
@@ -290,70 +274,95 @@ public class UserManagementService {
     @Transactional
     public void changeUserRole(String id, String role) {
         log.info("Changing role to {} for user with ID: {}", role, id);
-        User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
-        
+
+        Role newRole;
         try {
-            com.premisave.auth.enums.Role newRole = com.premisave.auth.enums.Role.valueOf(role.toUpperCase());
-            user.setRole(newRole);
-            userRepository.save(user);
-            log.info("Role changed successfully to {} for user: {}", role, user.getEmail());
+            newRole = Role.valueOf(role.toUpperCase());
         } catch (IllegalArgumentException e) {
             log.error("Invalid role provided: {}", role);
             throw new RuntimeException("Invalid role: " + role);
         }
+
+        String email = userRepository.setRole(id, newRole).orElseThrow(() -> new UserNotFoundException(id));
+        userCache.evict(id, email);
+        tokenRevocationService.revokeUser(id);
+        log.info("Role changed successfully to {} for user: {}", role, email);
     }
 
-    public List<UserDto> getActiveUsers() {
-        log.debug("Getting all active users");
-        List<User> users = userRepository.findByActiveTrueAndArchivedFalse();
-        return users.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public UserPage getActiveUsers(String cursor, int limit) {
+        log.debug("Getting active users after cursor {}", cursor);
+        return findPage(statusCriteria("active"), cursor, limit);
     }
 
-    public List<UserDto> getArchivedUsers() {
-        log.debug("Getting all archived users");
-        List<User> users = userRepository.findByArchivedTrue();
-        return users.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public UserPage getArchivedUsers(String cursor, int limit) {
+        log.debug("Getting archived users after cursor {}", cursor);
+        return findPage(statusCriteria("archived"), cursor, limit);
     }
 
     /**
-     * Custom conversion method to handle the display username mapping
+     * Writes every matching user as one JSON object per line while iterating a Mongo cursor,
+     * so memory use does not grow with the size of the collection. The status is checked now,
+     * before any of the response is written, so an invalid one fails the request with a 400.
      */
-    private UserDto convertToDto(User user) {
-        UserDto dto = new UserDto();
-        
-        // Map basic fields
-        dto.setId(user.getId());
-        dto.setUsername(user.getDisplayUsername()); // Use display username
-        dto.setEmail(user.getEmail()); // Use email field
-        
-        // Map personal information
-        dto.setFirstName(user.getFirstName());
-        dto.setMiddleName(user.getMiddleName());
-        dto.setLastName(user.getLastName());
-        dto.setPhoneNumber(user.getPhoneNumber());
-        dto.setAddress1(user.getAddress1());
-        dto.setAddress2(user.getAddress2());
-        dto.setCountry(user.getCountry());
-        dto.setLanguage(user.getLanguage());
-        dto.setProfilePictureUrl(user.getProfilePictureUrl());
-        
-        // Map role and status
-        dto.setRole(user.getRole());
-        dto.setActive(user.isActive());
-        dto.setVerified(user.isVerified());
-        dto.setArchived(user.isArchived());
-        
-        // Don't map password for security
-        dto.setPassword(null);
-        
-        log.debug("Converted User to DTO - Username: '{}', Email: '{}'", 
-            dto.getUsername(), dto.getEmail());
-        
-        return dto;
+    public StreamingResponseBody exportUsers(String status) {
+        Query query = listingQuery(statusCriteria(status)).cursorBatchSize(EXPORT_CURSOR_BATCH_SIZE);
+        return outputStream -> writeExport(query, outputStream);
+    }
+
+    private void writeExport(Query query, OutputStream outputStream) throws IOException {
+        OutputStream out = new BufferedOutputStream(outputStream);
+        try (Stream<Document> users = mongoTemplate.stream(query, Document.class, USERS_COLLECTION)) {
+            for (Document user : (Iterable<Document>) users::iterator) {
+                out.write(jsonMapper.writeValueAsBytes(userMapper.toDto(user)));
+                out.write('\n');
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Keyset pagination on _id: each page starts after the last id of the previous one,
+     * so the cost of a page does not depend on how deep into the collection it is.
+     */
+    private UserPage findPage(Criteria criteria, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if (cursor != null && !cursor.isBlank()) {
+            if (!ObjectId.isValid(cursor)) {
+                throw new RuntimeException("Invalid cursor: " + cursor);
+            }
+            criteria = new Criteria().andOperator(criteria, Criteria.where("_id").gt(new ObjectId(cursor)));
+        }
+
+        // Fetch one extra document to learn whether another page exists
+        // Raw documents map straight to DTOs without hydrating User entities
+        List<Document> users = mongoTemplate.find(listingQuery(criteria).limit(pageSize + 1), Document.class,
+                USERS_COLLECTION);
+        boolean hasMore = users.size() > pageSize;
+        if (hasMore) {
+            users = users.subList(0, pageSize);
+        }
+
+        List<UserDto> dtos = users.stream()
+                .map(userMapper::toDto)
+                .collect(Collectors.toList());
+        String nextCursor = hasMore ? dtos.get(dtos.size() - 1).getId() : null;
+        return new UserPage(dtos, nextCursor);
+    }
+
+    private Query listingQuery(Criteria criteria) {
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id"));
+        // Never read password hashes, and skip the audit references so they are not resolved per row
+        query.fields().exclude("password", "createdBy", "updatedBy", "searchKeys");
+        return query;
+    }
+
+    private Criteria statusCriteria(String status) {
+        return switch (status == null ? "all" : status.toLowerCase()) {
+            case "all" -> new Criteria();
+            case "active" -> Criteria.where("active").is(true).and("archived").is(false);
+            case "archived" -> Criteria.where("archived").is(true);
+            default -> throw new RuntimeException("Invalid status: " + status);
+        };
     }
 
     /**
@@ -0,0 +1,194 @@
+package com.premisave.auth.service;
+
+import com.premisave.auth.dto.UserSearchRequest;
+import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.UserSearchMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Admin user search. The default mode is an anchored prefix match on {@code searchKeys}, which
+ * the (active, archived, searchKeys) index answers with tight bounds. The optional TEXT mode uses
+ * a Mongo text index and orders by relevance. User input is matched literally in both modes.
+ */
+@Service
+@Slf4j
+public class UserSearchService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int BACKFILL_BATCH_SIZE = 500;
+    private static final String TEXT_INDEX_NAME = "user_text_search";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${user.search.text-index.enabled:false}")
+    private boolean textIndexEnabled;
+
+    @Value("${user.search.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    public UserSearchService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public List<User> search(UserSearchRequest request) {
+        int size = Math.max(1, Math.min(request.getSize(), MAX_PAGE_SIZE));
+        long skip = (long) Math.max(0, request.getPage()) * size;
+        String term = normalize(request.getQuery());
+
+        Query query;
+        if (request.getMode() == UserSearchMode.TEXT && term != null) {
+            if (!textIndexEnabled) {
+                throw new RuntimeException("Full-text user search is not enabled");
+            }
+            // A phrase is quoted by TextCriteria, so operators like '-' in the input are not interpreted
+            query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matchingPhrase(term)).sortByScore();
+        } else {
+            query = new Query();
+            if (term != null) {
+                // $elemMatch keeps both bounds on the same array element, so the index range stays tight
+                Criteria range = new Criteria().gte(term);
+                String upperBound = prefixUpperBound(term);
+                if (upperBound != null) {
+                    range.lt(upperBound);
+                }
+                query.addCriteria(Criteria.where("searchKeys").elemMatch(range));
+            }
+            query.with(Sort.by(Sort.Direction.ASC, "id"));
+        }
+
+        if (request.getActive() != null) {
+            query.addCriteria(Criteria.where("active").is(request.getActive()));
+        }
+        if (request.getArchived() != null) {
+            query.addCriteria(Criteria.where("archived").is(request.getArchived()));
+        }
+        query.fields().exclude("password", "createdBy", "updatedBy", "searchKeys");
+        query.skip(skip).limit(size);
+
+        return mongoTemplate.find(query, User.class);
+    }
+
+    /**
+     * The lowercase keys a user can be found by: email, username, first and last name,
+     * full name, and the digits of the phone number.
+     */
+    public static List<String> searchKeys(User user) {
+        Set<String> keys = new LinkedHashSet<>();
+        addKey(keys, user.getEmail());
+        addKey(keys, user.getDisplayUsername());
+        addKey(keys, user.getFirstName());
+        addKey(keys, user.getLastName());
+        if (user.getFirstName() != null && user.getLastName() != null) {
+            addKey(keys, user.getFirstName() + " " + user.getLastName());
+        }
+        if (user.getPhoneNumber() != null) {
+            String digits = user.getPhoneNumber().replaceAll("\\D", "");
+            if (!digits.isEmpty()) {
+                keys.add(digits);
+            }
+        }
+        return new ArrayList<>(keys);
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private static void addKey(Set<String> keys, String value) {
+        String key = normalize(value);
+        if (key != null) {
+            keys.add(key);
+        }
+    }
+
+    /**
+     * The smallest string greater than every string starting with {@code prefix}: the prefix with its
+     * last code point incremented. Mongo compares strings by their UTF-8 bytes, which orders them
+     * by code point, so this holds for supplementary characters too. Null if there is no such bound,
+     * i.e. the prefix is all U+10FFFF.
+     */
+    static String prefixUpperBound(String prefix) {
+        int end = prefix.length();
+        while (end > 0) {
+            int last = prefix.codePointBefore(end);
+            int start = end - Character.charCount(last);
+            if (last < Character.MAX_CODE_POINT) {
+                // Surrogates aren't characters of their own; skip past them
+                int next = last + 1 == Character.MIN_SURROGATE ? Character.MAX_SURROGATE + 1 : last + 1;
+                return new StringBuilder(start + 2).append(prefix, 0, start).appendCodePoint(next).toString();
+            }
+            end = start;
+        }
+        return null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareIndexes() {
+        if (textIndexEnabled) {
+            mongoTemplate.indexOps(User.class).createIndex(new TextIndexDefinition.TextIndexDefinitionBuilder()
+                    .named(TEXT_INDEX_NAME)
+                    .onField("firstName", 3F)
+                    .onField("lastName", 3F)
+                    .onField("username", 2F)
+                    .onField("email")
+                    .build());
+        }
+        if (backfillOnStartup) {
+            backfillSearchKeys();
+        }
+    }
+
+    /**
+     * Users written before search keys existed are given them in unordered bulk batches.
+     */
+    void backfillSearchKeys() {
+        Query missing = new Query(Criteria.where("searchKeys").exists(false));
+        missing.fields().include("email", "username", "firstName", "lastName", "phoneNumber");
+        missing.cursorBatchSize(BACKFILL_BATCH_SIZE);
+
+        long updated = 0;
+        try (Stream<User> users = mongoTemplate.stream(missing, User.class)) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+                int batch = 0;
+                while (batch < BACKFILL_BATCH_SIZE && iterator.hasNext()) {
+                    User user = iterator.next();
+                    bulk.updateOne(Query.query(Criteria.where("id").is(user.getId())),
+                            Update.update("searchKeys", searchKeys(user)));
+                    batch++;
+                }
+                bulk.execute();
+                updated += batch;
+            }
+        }
+        if (updated > 0) {
+            log.info("Backfilled search keys for {} users", updated);
+        }
+    }
+}
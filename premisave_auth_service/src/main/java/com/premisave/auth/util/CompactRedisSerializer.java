@@ -0,0 +1,125 @@
+package com.premisave.auth.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis value serializer that writes registered types as CBOR behind a three-byte header
+ * (marker, type id, schema version) and leaves everything else to the legacy JSON serializer.
+ * <p>
+ * Both formats are always readable, so a rolling deploy can run with {@link Format#JSON} until
+ * every node has this class and then switch writes to {@link Format#CBOR}. A schema may append
+ * fields without a version bump; reordering or removing fields needs a new version. Payloads
+ * with any other type or version decode to {@code null}, which callers treat as a cache miss.
+ */
+@Slf4j
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    public enum Format { JSON, CBOR }
+
+    /**
+     * A cached type and how it is laid out. The mix-in, if any, carries the Jackson shape
+     * annotations (typically a positional array) so the cached class itself stays plain.
+     */
+    public record Schema(int typeId, Class<?> type, int version, Class<?> mixIn) {
+    }
+
+    // 0xC1 never starts a UTF-8 encoded JSON document, so the two formats cannot be confused
+    static final byte MARKER = (byte) 0xC1;
+    private static final int HEADER_LENGTH = 3;
+
+    private final Format writeFormat;
+    private final RedisSerializer<Object> legacy;
+    private final CBORMapper cborMapper;
+    private final Map<Class<?>, Schema> schemasByType = new HashMap<>();
+    private final Schema[] schemasById;
+
+    public CompactRedisSerializer(Format writeFormat, RedisSerializer<Object> legacy, List<Schema> schemas) {
+        this.writeFormat = writeFormat;
+        this.legacy = legacy;
+
+        CBORMapper.Builder builder = CBORMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        int maxTypeId = 0;
+        for (Schema schema : schemas) {
+            if (schema.typeId() < 1 || schema.typeId() > 255 || schema.version() < 1 || schema.version() > 255) {
+                throw new IllegalArgumentException("Type id and version must be between 1 and 255: " + schema);
+            }
+            if (schemasByType.put(schema.type(), schema) != null) {
+                throw new IllegalArgumentException("Duplicate schema for " + schema.type().getName());
+            }
+            if (schema.mixIn() != null) {
+                builder.addMixIn(schema.type(), schema.mixIn());
+            }
+            maxTypeId = Math.max(maxTypeId, schema.typeId());
+        }
+        this.cborMapper = builder.build();
+
+        this.schemasById = new Schema[maxTypeId + 1];
+        for (Schema schema : schemas) {
+            if (schemasById[schema.typeId()] != null) {
+                throw new IllegalArgumentException("Duplicate type id " + schema.typeId());
+            }
+            schemasById[schema.typeId()] = schema;
+        }
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        Schema schema = writeFormat == Format.CBOR ? schemasByType.get(value.getClass()) : null;
+        if (schema == null) {
+            return legacy.serialize(value);
+        }
+
+        try {
+            byte[] body = cborMapper.writeValueAsBytes(value);
+            byte[] bytes = new byte[HEADER_LENGTH + body.length];
+            bytes[0] = MARKER;
+            bytes[1] = (byte) schema.typeId();
+            bytes[2] = (byte) schema.version();
+            System.arraycopy(body, 0, bytes, HEADER_LENGTH, body.length);
+            return bytes;
+        } catch (JacksonException e) {
+            throw new SerializationException("Could not write " + value.getClass().getSimpleName() + " as CBOR", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MARKER) {
+            return legacy.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH) {
+            throw new SerializationException("Truncated compact payload");
+        }
+
+        int typeId = Byte.toUnsignedInt(bytes[1]);
+        int version = Byte.toUnsignedInt(bytes[2]);
+        Schema schema = typeId < schemasById.length ? schemasById[typeId] : null;
+        if (schema == null || version != schema.version()) {
+            // Another node's layout; let the caller reload from the source of truth and rewrite it
+            log.debug("Skipping cached value with unknown type {} version {}", typeId, version);
+            return null;
+        }
+
+        try {
+            return cborMapper.readValue(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, schema.type());
+        } catch (JacksonException e) {
+            throw new SerializationException("Could not read cached " + schema.type().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.premisave.auth.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Admits service-to-service calls carrying one of the configured keys in {@code X-Internal-Api-Key}.
+ * Several keys can be configured at once so a key can be rotated without downtime. With none
+ * configured every call is refused.
+ */
+public class InternalApiKeyInterceptor implements HandlerInterceptor {
+
+    public static final String HEADER = "X-Internal-Api-Key";
+
+    private final List<byte[]> keys;
+
+    public InternalApiKeyInterceptor(List<String> keys) {
+        this.keys = keys.stream()
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .map(key -> key.getBytes(StandardCharsets.UTF_8))
+                .toList();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String presented = request.getHeader(HEADER);
+        if (presented != null) {
+            byte[] bytes = presented.getBytes(StandardCharsets.UTF_8);
+            // Constant-time comparison, so response timing doesn't leak how much of a key matched
+            boolean matched = false;
+            for (byte[] key : keys) {
+                matched |= MessageDigest.isEqual(key, bytes);
+            }
+            Arrays.fill(bytes, (byte) 0);
+            if (matched) {
+                return true;
+            }
+        }
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        return false;
+    }
+}
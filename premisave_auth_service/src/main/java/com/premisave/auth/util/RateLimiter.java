@@ -0,0 +1,86 @@
+package com.premisave.auth.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.premisave.auth.enums.RateLimitedEndpoint;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distributed token buckets keyed by client IP and by target account, one pair per endpoint.
+ * Limits are read from rate-limit.{endpoint}.per-ip / per-account (requests per minute) and
+ * fall back to rate-limit.requests-per-minute. If Redis is unavailable requests are let through.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    public enum Scope { IP, ACCOUNT }
+
+    public record Decision(boolean allowed, long limit, long remaining, long resetSeconds) {
+    }
+
+    private final ProxyManager<String> proxyManager;
+    private final Map<RateLimitedEndpoint, BucketConfiguration> ipLimits = new EnumMap<>(RateLimitedEndpoint.class);
+    private final Map<RateLimitedEndpoint, BucketConfiguration> accountLimits = new EnumMap<>(RateLimitedEndpoint.class);
+
+    // Bucket proxies are cheap but not free to build; keep the hot ones around
+    private final Cache<String, BucketProxy> buckets;
+
+    public RateLimiter(ProxyManager<String> proxyManager,
+                       Environment environment,
+                       @Value("${rate-limit.requests-per-minute}") int requestsPerMinute,
+                       @Value("${rate-limit.local-cache.max-size:50000}") long localCacheMaxSize) {
+        this.proxyManager = proxyManager;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(localCacheMaxSize)
+                .expireAfterAccess(Duration.ofMinutes(5))
+                .build();
+
+        for (RateLimitedEndpoint endpoint : RateLimitedEndpoint.values()) {
+            String prefix = "rate-limit." + endpoint.getKey();
+            ipLimits.put(endpoint, perMinute(environment.getProperty(prefix + ".per-ip", Integer.class, requestsPerMinute)));
+            accountLimits.put(endpoint, perMinute(environment.getProperty(prefix + ".per-account", Integer.class, requestsPerMinute)));
+        }
+    }
+
+    public Decision tryConsume(RateLimitedEndpoint endpoint, Scope scope, String key) {
+        BucketConfiguration configuration = (scope == Scope.IP ? ipLimits : accountLimits).get(endpoint);
+        long limit = configuration.getBandwidths()[0].getCapacity();
+        String bucketKey = "rate-limit:" + endpoint.getKey() + ":" + scope.name().toLowerCase(Locale.ROOT)
+                + ":" + key.toLowerCase(Locale.ROOT);
+
+        try {
+            BucketProxy bucket = buckets.get(bucketKey, k -> proxyManager.getProxy(k, () -> configuration));
+            ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+            long resetSeconds = TimeUnit.NANOSECONDS.toSeconds(
+                    probe.isConsumed() ? probe.getNanosToWaitForReset() : probe.getNanosToWaitForRefill()) + 1;
+            return new Decision(probe.isConsumed(), limit, probe.getRemainingTokens(), resetSeconds);
+        } catch (RuntimeException e) {
+            log.warn("Rate limiter unavailable, allowing request for {}: {}", bucketKey, e.getMessage());
+            return new Decision(true, limit, limit, 0);
+        }
+    }
+
+    private static BucketConfiguration perMinute(int requestsPerMinute) {
+        return BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(requestsPerMinute)
+                        .refillIntervally(requestsPerMinute, Duration.ofMinutes(1))
+                        .build())
+                .build();
+    }
+}
@@ -1,27 +1,43 @@
 package com.premisave.auth.util;
 
-import io.github.bucket4j.Bucket;
+import com.premisave.auth.enums.RateLimitedEndpoint;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-@Component
+/**
+ * Per-client-IP limit for one endpoint. Per-account limits are applied in the service layer,
+ * where the target email is known.
+ */
 public class RateLimiterInterceptor implements HandlerInterceptor {
 
-    private final Bucket bucket;
+    private final RateLimiter rateLimiter;
+    private final RateLimitedEndpoint endpoint;
 
-    public RateLimiterInterceptor(Bucket bucket) {
-        this.bucket = bucket;
+    public RateLimiterInterceptor(RateLimiter rateLimiter, RateLimitedEndpoint endpoint) {
+        this.rateLimiter = rateLimiter;
+        this.endpoint = endpoint;
     }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        if (bucket.tryConsume(1)) {
+        // getRemoteAddr honours X-Forwarded-For from trusted proxies (server.forward-headers-strategy)
+        RateLimiter.Decision decision = rateLimiter.tryConsume(endpoint, RateLimiter.Scope.IP, request.getRemoteAddr());
+        writeHeaders(response, decision);
+        if (decision.allowed()) {
             return true;
         } else {
             response.setStatus(429); // Too Many Requests
             return false;
         }
     }
-}
\ No newline at end of file
+
+    public static void writeHeaders(HttpServletResponse response, RateLimiter.Decision decision) {
+        response.setHeader("X-RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+        if (!decision.allowed()) {
+            response.setHeader("Retry-After", String.valueOf(decision.resetSeconds()));
+        }
+    }
+}
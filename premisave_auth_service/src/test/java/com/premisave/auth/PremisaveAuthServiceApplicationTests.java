@@ -3,7 +3,7 @@ package com.premisave.auth;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "jwt.signing.allow-ephemeral=true")
 class PremisaveAuthServiceApplicationTests {
 
 	@Test
@@ -0,0 +1,102 @@
+package com.premisave.auth.repository;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.premisave.auth.entity.Token;
+import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.Role;
+import com.premisave.auth.enums.TokenType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mongodb.MongoDBContainer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against a throwaway mongod; skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MongoIndexVerifierTest {
+
+	@Container
+	static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+	private static MongoClient client;
+	private static MongoTemplate mongoTemplate;
+	private static MongoIndexVerifier verifier;
+
+	@BeforeAll
+	static void seed() {
+		client = MongoClients.create(MONGO.getConnectionString());
+		mongoTemplate = new MongoTemplate(client, "index_verifier_test");
+		verifier = new MongoIndexVerifier(mongoTemplate, Duration.ofSeconds(5));
+
+		// Enough documents that the planner has a real choice between scanning and seeking
+		List<User> users = new ArrayList<>();
+		List<Token> tokens = new ArrayList<>();
+		Role[] roles = Role.values();
+		for (int i = 0; i < 500; i++) {
+			User user = new User();
+			user.setEmail("user" + i + "@example.com");
+			user.setDisplayUsername("user" + i);
+			user.setRole(roles[i % roles.length]);
+			user.setActive(i % 3 != 0);
+			user.setVerified(i % 2 == 0);
+			user.setArchived(i % 10 == 0);
+			users.add(user);
+
+			Token token = new Token();
+			token.setToken(UUID.randomUUID().toString());
+			token.setType(TokenType.ACTIVATION);
+			token.setExpiryDate(LocalDateTime.now().plusDays(1));
+			tokens.add(token);
+		}
+		mongoTemplate.insertAll(users);
+		mongoTemplate.insertAll(tokens);
+	}
+
+	@AfterAll
+	static void close() {
+		client.close();
+	}
+
+	@Test
+	void everyHotQueryUsesAnIndexScan() {
+		verifier.ensureIndexes();
+
+		MongoIndexVerifier.HOT_QUERIES.forEach((name, query) ->
+				assertThat(verifier.winningPlanStages(query))
+						.as(name)
+						.contains("IXSCAN")
+						.doesNotContain("COLLSCAN"));
+		assertThat(verifier.findCollectionScans()).isEmpty();
+	}
+
+	@Test
+	void ensureIndexesIsIdempotent() {
+		verifier.ensureIndexes();
+
+		assertThat(verifier.ensureIndexes()).isEmpty();
+	}
+
+	@Test
+	void emailIsUnique() {
+		verifier.ensureIndexes();
+		User duplicate = new User();
+		duplicate.setEmail("user1@example.com");
+
+		assertThatThrownBy(() -> mongoTemplate.insert(duplicate)).isInstanceOf(DuplicateKeyException.class);
+	}
+}
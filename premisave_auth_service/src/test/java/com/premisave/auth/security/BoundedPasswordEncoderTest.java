@@ -0,0 +1,120 @@
+package com.premisave.auth.security;
+
+import com.premisave.auth.config.ApplicationConfig;
+import com.premisave.auth.exception.PasswordHashingBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+	private final ApplicationConfig config = new ApplicationConfig();
+	private final ThreadPoolTaskExecutor executor = config.passwordHashingExecutor(1);
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdown();
+	}
+
+	@Test
+	void verifiesLegacyBcryptAndFlagsItForUpgrade() {
+		executor.initialize();
+		BoundedPasswordEncoder encoder = config.passwordEncoder(executor, "argon2", 4, Duration.ZERO, 1000, 16,
+				Duration.ofSeconds(5), 0);
+		String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+		assertThat(encoder.matches("secret", legacy)).isTrue();
+		assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+
+		String upgraded = encoder.encode("secret");
+		assertThat(upgraded).startsWith("{argon2}");
+		assertThat(encoder.matches("secret", upgraded)).isTrue();
+		assertThat(encoder.upgradeEncoding(upgraded)).isFalse();
+		assertThat(encoder.encodeAll(List.of("a", "b"))).allMatch(hash -> hash.startsWith("{argon2}"));
+	}
+
+	@Test
+	void rejectsCallersBeyondCapacity() throws Exception {
+		executor.initialize();
+		CountDownLatch hashing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		PasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+		PasswordEncoder slow = new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				hashing.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return bcrypt.encode(rawPassword);
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				return bcrypt.matches(rawPassword, encodedPassword);
+			}
+		};
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slow, executor, 1, 1, Duration.ofMillis(50));
+
+		Thread first = Thread.ofVirtual().start(() -> encoder.encode("first"));
+		hashing.await();
+
+		assertThatThrownBy(() -> encoder.encode("second")).isInstanceOf(PasswordHashingBusyException.class);
+		release.countDown();
+		first.join();
+		assertThat(encoder.encode("third")).startsWith("$2a$04$");
+	}
+
+	@Test
+	void bulkHashingLeavesPermitsAndThreadsForSignIns() throws Exception {
+		ThreadPoolTaskExecutor twoThreads = config.passwordHashingExecutor(2);
+		twoThreads.initialize();
+		CountDownLatch bulkStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		PasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+		PasswordEncoder blockingBulk = new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				if (rawPassword.toString().startsWith("bulk")) {
+					bulkStarted.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return bcrypt.encode(rawPassword);
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				return bcrypt.matches(rawPassword, encodedPassword);
+			}
+		};
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blockingBulk, twoThreads, 2, 1,
+				Duration.ofMillis(50));
+
+		Thread bulk = Thread.ofVirtual().start(() -> encoder.encodeAll(List.of("bulk-1", "bulk-2", "bulk-3")));
+		bulkStarted.await();
+
+		try {
+			// The import holds its only permit and one thread; a sign-in still gets in at once
+			assertThat(encoder.matches("secret", encoder.encode("secret"))).isTrue();
+		} finally {
+			release.countDown();
+			bulk.join();
+			twoThreads.shutdown();
+		}
+	}
+}
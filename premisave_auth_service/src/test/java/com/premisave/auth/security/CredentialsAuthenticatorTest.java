@@ -0,0 +1,67 @@
+package com.premisave.auth.security;
+
+import com.premisave.auth.entity.User;
+import com.premisave.auth.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CredentialsAuthenticatorTest {
+
+	private static final String EMAIL = TestUsers.JANE_EMAIL;
+	private static final BCryptPasswordEncoder PASSWORD_ENCODER = new BCryptPasswordEncoder(4);
+	private static final String PASSWORD_HASH = PASSWORD_ENCODER.encode("correct horse");
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final LoginAttemptTracker attemptTracker = mock(LoginAttemptTracker.class);
+	private final CredentialsAuthenticator authenticator = new CredentialsAuthenticator(userRepository,
+			PASSWORD_ENCODER, mock(UserDetailsServiceImpl.class), attemptTracker);
+
+	@Test
+	void lockedAccountIsRefusedBeforeLookingUpTheUser() {
+		when(attemptTracker.check(EMAIL)).thenReturn(new LoginAttemptTracker.Status(5, Duration.ofMinutes(3)));
+
+		SigninResult result = authenticator.authenticate(EMAIL, "correct horse");
+
+		assertThat(result).isEqualTo(new SigninResult.LockedOut(Duration.ofMinutes(3)));
+		verify(userRepository, never()).findByEmail(anyString());
+	}
+
+	@Test
+	void wrongPasswordCountsAsFailureAndLocksOnTheLastAllowedAttempt() {
+		when(attemptTracker.check(EMAIL)).thenReturn(new LoginAttemptTracker.Status(3, Duration.ZERO));
+		when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user()));
+		when(attemptTracker.recordFailure(EMAIL))
+				.thenReturn(new LoginAttemptTracker.Status(4, Duration.ZERO))
+				.thenReturn(new LoginAttemptTracker.Status(5, Duration.ofMinutes(15)));
+
+		assertThat(authenticator.authenticate(EMAIL, "wrong")).isInstanceOf(SigninResult.BadPassword.class);
+		assertThat(authenticator.authenticate(EMAIL, "wrong"))
+				.isEqualTo(new SigninResult.LockedOut(Duration.ofMinutes(15)));
+	}
+
+	@Test
+	void successClearsEarlierFailures() {
+		User user = user();
+		when(attemptTracker.check(EMAIL)).thenReturn(new LoginAttemptTracker.Status(2, Duration.ZERO));
+		when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+
+		assertThat(authenticator.authenticate(EMAIL, "correct horse")).isEqualTo(new SigninResult.Success(user));
+		verify(attemptTracker).reset(EMAIL);
+	}
+
+	private static User user() {
+		User user = TestUsers.jane();
+		user.setPassword(PASSWORD_HASH);
+		return user;
+	}
+}
@@ -0,0 +1,43 @@
+package com.premisave.auth.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+	private static final long EXPIRATION = Duration.ofMinutes(15).toMillis();
+
+	@Test
+	void legacyTokensVerifyOnlyUntilTheCutoff() {
+		Instant now = Instant.now();
+		String legacyToken = LegacyTokens.token("user@premisave.com", now.minus(Duration.ofMinutes(1)));
+
+		assertThat(LegacyTokens.jwtService(EXPIRATION, now.plus(Duration.ofHours(1)))
+				.parseValidatedClaims(legacyToken).getSubject())
+				.isEqualTo("user@premisave.com");
+		assertThatThrownBy(() -> LegacyTokens.jwtService(EXPIRATION, now.minus(Duration.ofSeconds(1)))
+				.parseValidatedClaims(legacyToken))
+				.hasMessage("Invalid JWT token");
+	}
+
+	@Test
+	void legacyTokensIssuedAfterTheCutoffAreRefused() {
+		Instant cutoff = Instant.now().plus(Duration.ofHours(1));
+		String legacyToken = LegacyTokens.token("user@premisave.com", cutoff.plusSeconds(1));
+
+		assertThatThrownBy(() -> LegacyTokens.jwtService(EXPIRATION, cutoff).parseValidatedClaims(legacyToken))
+				.hasMessage("Invalid JWT token");
+	}
+
+	@Test
+	void legacySecretWithoutCutoffFailsStartup() {
+		assertThatThrownBy(() -> new JwtService(SigningKeyRing.ephemeral(Duration.ofMillis(EXPIRATION)),
+				"premisave-auth", EXPIRATION, LegacyTokens.SECRET, ""))
+				.isInstanceOf(IllegalStateException.class);
+	}
+}
@@ -0,0 +1,36 @@
+package com.premisave.auth.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Tokens shaped like those issued before the switch to key pairs: HS256, 30-day, and carrying only
+ * a subject and times, with no user id or token id.
+ */
+final class LegacyTokens {
+
+	static final String SECRET = "cHJlbWlzYXZlLWxlZ2FjeS1oczI1Ni1zZWNyZXQtMzI=";
+
+	private LegacyTokens() {
+	}
+
+	static JwtService jwtService(long expiration, Instant acceptedUntil) {
+		return new JwtService(SigningKeyRing.ephemeral(Duration.ofMillis(expiration)), "premisave-auth", expiration,
+				SECRET, acceptedUntil.toString());
+	}
+
+	static String token(String email, Instant issuedAt) {
+		return Jwts.builder()
+				.setSubject(email)
+				.setIssuedAt(Date.from(issuedAt))
+				.setExpiration(Date.from(issuedAt.plus(Duration.ofDays(30))))
+				.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+				.compact();
+	}
+}
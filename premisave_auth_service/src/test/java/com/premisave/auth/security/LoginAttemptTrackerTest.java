@@ -0,0 +1,74 @@
+package com.premisave.auth.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the CHECK and RECORD scripts against a throwaway Redis.
+ */
+class LoginAttemptTrackerTest extends RedisContainerTest {
+
+	private static final int MAX_FAILURES = 3;
+	private static final Duration WINDOW = Duration.ofMillis(500);
+
+	private final LoginAttemptTracker tracker = new LoginAttemptTracker(redisTemplate, MAX_FAILURES, WINDOW);
+
+	@Test
+	void locksOnceFailuresReachTheLimit() {
+		assertThat(tracker.recordFailure("user@premisave.com").locked()).isFalse();
+		assertThat(tracker.recordFailure("user@premisave.com").locked()).isFalse();
+		assertThat(tracker.check("user@premisave.com")).isEqualTo(new LoginAttemptTracker.Status(2, Duration.ZERO));
+
+		LoginAttemptTracker.Status recorded = tracker.recordFailure("user@premisave.com");
+		LoginAttemptTracker.Status checked = tracker.check("USER@premisave.com");
+
+		assertThat(recorded.failures()).isEqualTo(MAX_FAILURES);
+		assertThat(recorded.locked()).isTrue();
+		assertThat(checked.failures()).isEqualTo(MAX_FAILURES);
+		assertThat(checked.locked()).isTrue();
+		assertThat(tracker.check("other@premisave.com")).isEqualTo(LoginAttemptTracker.Status.CLEAR);
+	}
+
+	@Test
+	void retryAfterRunsUntilTheOldestFailureLeavesTheWindow() throws InterruptedException {
+		tracker.recordFailure("user@premisave.com");
+		Thread.sleep(200);
+		tracker.recordFailure("user@premisave.com");
+		tracker.recordFailure("user@premisave.com");
+
+		Duration retryAfter = tracker.check("user@premisave.com").retryAfter();
+
+		// The oldest failure is ~200ms old, so it leaves the 500ms window in ~300ms
+		assertThat(retryAfter).isPositive().isLessThanOrEqualTo(WINDOW.minusMillis(200));
+		assertThat(redisTemplate.getExpire("login-failures:user@premisave.com", TimeUnit.MILLISECONDS))
+				.isBetween(1L, WINDOW.toMillis());
+	}
+
+	@Test
+	void failuresExpireWithTheWindow() throws InterruptedException {
+		tracker.recordFailure("user@premisave.com");
+		tracker.recordFailure("user@premisave.com");
+		tracker.recordFailure("user@premisave.com");
+		Thread.sleep(WINDOW.toMillis() + 100);
+
+		assertThat(tracker.check("user@premisave.com").locked()).isFalse();
+		// Old failures are pruned when the next one is recorded, so it counts alone
+		assertThat(tracker.recordFailure("user@premisave.com")).isEqualTo(new LoginAttemptTracker.Status(1, Duration.ZERO));
+	}
+
+	@Test
+	void resetUnlocksTheAccount() {
+		tracker.recordFailure("user@premisave.com");
+		tracker.recordFailure("user@premisave.com");
+		assertThat(tracker.recordFailure("user@premisave.com").locked()).isTrue();
+
+		tracker.reset("User@Premisave.com");
+
+		assertThat(tracker.check("user@premisave.com")).isEqualTo(LoginAttemptTracker.Status.CLEAR);
+		assertThat(redisTemplate.hasKey("login-failures:user@premisave.com")).isFalse();
+	}
+}
@@ -0,0 +1,120 @@
+package com.premisave.auth.security;
+
+import com.premisave.auth.enums.Role;
+import com.premisave.auth.exception.InvalidRefreshTokenException;
+import com.premisave.auth.exception.StaleRefreshTokenException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the session scripts against a throwaway Redis.
+ */
+class RefreshSessionStoreTest extends RedisContainerTest {
+
+	private static final long LIFETIME = Duration.ofDays(30).toMillis();
+	private static final Duration GRACE = Duration.ofMillis(300);
+
+	private final RefreshSessionStore store = new RefreshSessionStore(redisTemplate, LIFETIME, GRACE);
+
+	@Test
+	void rotatesToANewTokenCarryingTheSessionClaims() {
+		String first = store.create(TestUsers.user("u-1", Role.ADMIN));
+
+		RefreshSessionStore.Rotation rotation = store.rotate(first);
+
+		assertThat(rotation.refreshToken()).isNotEqualTo(first)
+				.startsWith(first.substring(0, first.indexOf('.') + 1));
+		JwtPrincipal principal = rotation.principal();
+		assertThat(principal.getId()).isEqualTo("u-1");
+		assertThat(principal.getEmail()).isEqualTo("u-1@premisave.com");
+		assertThat(principal.getRole()).isEqualTo(Role.ADMIN);
+		assertThat(principal.isActive()).isTrue();
+		assertThat(principal.isVerified()).isTrue();
+		assertThat(store.rotate(rotation.refreshToken()).principal().getId()).isEqualTo("u-1");
+
+		String sessionKey = "session:" + first.substring(0, first.indexOf('.'));
+		assertThat(redisTemplate.getExpire(sessionKey, TimeUnit.MILLISECONDS)).isBetween(1L, LIFETIME);
+	}
+
+	@Test
+	void previousTokenWithinGraceIsRefusedButSessionSurvives() {
+		String first = store.create(TestUsers.user("u-1", Role.CLIENT));
+		String second = store.rotate(first).refreshToken();
+
+		assertThatThrownBy(() -> store.rotate(first)).isInstanceOf(StaleRefreshTokenException.class);
+		assertThat(store.rotate(second).principal().getId()).isEqualTo("u-1");
+	}
+
+	@Test
+	void previousTokenAfterGraceRevokesSession() throws InterruptedException {
+		String first = store.create(TestUsers.user("u-1", Role.CLIENT));
+		String second = store.rotate(first).refreshToken();
+		Thread.sleep(GRACE.toMillis() + 200);
+
+		assertThatThrownBy(() -> store.rotate(first))
+				.isInstanceOf(InvalidRefreshTokenException.class)
+				.hasMessage("Refresh token was already used");
+		assertThatThrownBy(() -> store.rotate(second))
+				.isInstanceOf(InvalidRefreshTokenException.class)
+				.hasMessage("Refresh session expired or revoked");
+	}
+
+	@Test
+	void olderTokenIsTreatedAsReuseAndRevokesSession() {
+		String first = store.create(TestUsers.user("u-1", Role.CLIENT));
+		String second = store.rotate(first).refreshToken();
+		String third = store.rotate(second).refreshToken();
+
+		assertThatThrownBy(() -> store.rotate(first))
+				.isInstanceOf(InvalidRefreshTokenException.class)
+				.hasMessage("Refresh token was already used");
+		assertThatThrownBy(() -> store.rotate(third))
+				.isInstanceOf(InvalidRefreshTokenException.class)
+				.hasMessage("Refresh session expired or revoked");
+	}
+
+	@Test
+	void unknownOrMalformedTokensAreRefused() {
+		assertThatThrownBy(() -> store.rotate("no-such-session.secret"))
+				.isInstanceOf(InvalidRefreshTokenException.class)
+				.hasMessage("Refresh session expired or revoked");
+		assertThatThrownBy(() -> store.rotate("no-dot"))
+				.isInstanceOf(InvalidRefreshTokenException.class)
+				.hasMessage("Invalid refresh token");
+	}
+
+	@Test
+	void revokeEndsOnlyTheSessionWhoseSecretIsPresented() {
+		String token = store.create(TestUsers.user("u-1", Role.CLIENT));
+		String sessionId = token.substring(0, token.indexOf('.'));
+
+		store.revoke(sessionId + ".wrong-secret");
+		String rotated = store.rotate(token).refreshToken();
+
+		store.revoke(rotated);
+		assertThatThrownBy(() -> store.rotate(rotated))
+				.isInstanceOf(InvalidRefreshTokenException.class)
+				.hasMessage("Refresh session expired or revoked");
+		assertThat(redisTemplate.opsForSet().isMember("user-sessions:u-1", sessionId)).isFalse();
+	}
+
+	@Test
+	void revokeAllEndsEverySessionOfTheGivenUsersOnly() {
+		String laptop = store.create(TestUsers.user("u-1", Role.CLIENT));
+		String phone = store.create(TestUsers.user("u-1", Role.CLIENT));
+		String other = store.create(TestUsers.user("u-2", Role.CLIENT));
+
+		store.revokeAll("u-1");
+
+		assertThatThrownBy(() -> store.rotate(laptop)).isInstanceOf(InvalidRefreshTokenException.class);
+		assertThatThrownBy(() -> store.rotate(phone)).isInstanceOf(InvalidRefreshTokenException.class);
+		assertThat(redisTemplate.hasKey("user-sessions:u-1")).isFalse();
+		assertThat(store.rotate(other).principal().getId()).isEqualTo("u-2");
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.premisave.auth.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SigningKeyRingTest {
+
+	private static final Instant ROTATION = Instant.parse("2026-11-01T00:00:00Z");
+	private static final Duration RETENTION = Duration.ofMinutes(16);
+
+	@Test
+	void publishesNextKeyBeforeItSignsAndOldKeyUntilItsTokensExpire() throws Exception {
+		SigningKeyRing.SigningKey old = key("2026-10", Instant.EPOCH);
+		SigningKeyRing.SigningKey next = key("2026-11", ROTATION);
+
+		SigningKeyRing beforeRotation = ring(List.of(next, old), ROTATION.minusSeconds(60));
+		assertThat(beforeRotation.current()).isEqualTo(old);
+		assertThat(beforeRotation.published()).containsExactly(old, next);
+
+		SigningKeyRing duringOverlap = ring(List.of(old, next), ROTATION.plus(RETENTION).minusSeconds(1));
+		assertThat(duringOverlap.current()).isEqualTo(next);
+		assertThat(duringOverlap.verificationKey("2026-10")).isEqualTo(old.publicKey());
+
+		SigningKeyRing afterOverlap = ring(List.of(old, next), ROTATION.plus(RETENTION));
+		assertThat(afterOverlap.published()).containsExactly(next);
+		assertThat(afterOverlap.verificationKey("2026-10")).isNull();
+		assertThat(afterOverlap.verificationKey("unknown")).isNull();
+	}
+
+	@Test
+	void rejectsMismatchedKeyHalves() throws Exception {
+		SigningKeyRing.SigningKey a = key("a", Instant.EPOCH);
+		SigningKeyRing.SigningKey b = key("b", Instant.EPOCH);
+		SigningKeyRing.SigningKey mismatched = new SigningKeyRing.SigningKey("a", a.privateKey(), b.publicKey(), Instant.EPOCH);
+
+		assertThatThrownBy(() -> ring(List.of(mismatched), ROTATION)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rendersEcKeyAsJwk() throws Exception {
+		var jwk = key("2026-10", Instant.EPOCH).toJwk();
+
+		assertThat(jwk).containsEntry("kid", "2026-10").containsEntry("kty", "EC")
+				.containsEntry("crv", "P-256").containsEntry("alg", "ES256");
+		// 32-byte coordinates, base64url without padding
+		assertThat((String) jwk.get("x")).hasSize(43);
+		assertThat((String) jwk.get("y")).hasSize(43);
+	}
+
+	private static SigningKeyRing ring(List<SigningKeyRing.SigningKey> keys, Instant now) {
+		return new SigningKeyRing(keys, RETENTION, Clock.fixed(now, ZoneOffset.UTC));
+	}
+
+	private static SigningKeyRing.SigningKey key(String kid, Instant activeFrom) throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec("secp256r1"));
+		KeyPair pair = generator.generateKeyPair();
+		return new SigningKeyRing.SigningKey(kid, pair.getPrivate(), pair.getPublic(), activeFrom);
+	}
+}
@@ -0,0 +1,37 @@
+package com.premisave.auth.security;
+
+import com.premisave.auth.entity.User;
+import com.premisave.auth.enums.Role;
+
+/**
+ * Active, verified users to issue tokens and sessions for.
+ */
+final class TestUsers {
+
+	static final String JANE_ID = "u-1";
+	static final String JANE_EMAIL = "jane@premisave.com";
+
+	private TestUsers() {
+	}
+
+	static User jane() {
+		return user(JANE_ID, JANE_EMAIL, Role.CLIENT);
+	}
+
+	/**
+	 * A user whose email is derived from the id, e.g. {@code u-2@premisave.com}.
+	 */
+	static User user(String id, Role role) {
+		return user(id, id + "@premisave.com", role);
+	}
+
+	private static User user(String id, String email, Role role) {
+		User user = new User();
+		user.setId(id);
+		user.setEmail(email);
+		user.setRole(role);
+		user.setActive(true);
+		user.setVerified(true);
+		return user;
+	}
+}
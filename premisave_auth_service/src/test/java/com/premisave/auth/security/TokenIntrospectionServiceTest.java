@@ -0,0 +1,104 @@
+package com.premisave.auth.security;
+
+import com.premisave.auth.dto.TokenIntrospection;
+import com.premisave.auth.enums.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenIntrospectionServiceTest {
+
+	private static final long EXPIRATION = Duration.ofMinutes(15).toMillis();
+
+	private final JwtService jwtService = new JwtService(SigningKeyRing.ephemeral(Duration.ofMillis(EXPIRATION)),
+			"premisave-auth", EXPIRATION, "", "");
+	private final TokenRevocationService revocationService = mock(TokenRevocationService.class);
+	private final UserDetailsServiceImpl userDetailsService = mock(UserDetailsServiceImpl.class);
+	private final TokenIntrospectionService introspectionService =
+			new TokenIntrospectionService(jwtService, revocationService, userDetailsService, 1000);
+
+	@Test
+	void answersEachTokenInOrderAndReusesCachedResults() {
+		String token = jwtService.generateToken(TestUsers.jane());
+
+		List<TokenIntrospection> results = introspectionService.introspect(Arrays.asList(token, "not-a-jwt", null, token));
+
+		TokenIntrospection active = results.get(0);
+		assertThat(active.active()).isTrue();
+		assertThat(active.sub()).isEqualTo("jane@premisave.com");
+		assertThat(active.uid()).isEqualTo("u-1");
+		assertThat(active.role()).isEqualTo("CLIENT");
+		assertThat(active.exp()).isGreaterThan(System.currentTimeMillis() / 1000);
+		assertThat(results.get(1)).isSameAs(TokenIntrospection.INACTIVE);
+		assertThat(results.get(2)).isSameAs(TokenIntrospection.INACTIVE);
+		assertThat(results.get(3)).isSameAs(active);
+	}
+
+	@Test
+	void revokedTokenGoesInactiveEvenWhenCached() {
+		String token = jwtService.generateToken(TestUsers.jane());
+		assertThat(introspectionService.introspect(token).active()).isTrue();
+
+		when(revocationService.isRevoked(anyString(), eq("u-1"), any())).thenReturn(true);
+
+		assertThat(introspectionService.introspect(token)).isSameAs(TokenIntrospection.INACTIVE);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void legacyTokenIsRevokedThroughItsUser() {
+		Instant issuedAt = Instant.now().minus(Duration.ofDays(2));
+		String legacyToken = LegacyTokens.token("jane@premisave.com", issuedAt);
+		when(userDetailsService.loadPrincipal("jane@premisave.com"))
+				.thenReturn(new JwtPrincipal("u-1", "jane@premisave.com", Role.CLIENT, true, true));
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		ValueOperations<String, String> values = mock(ValueOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(values);
+		when(values.multiGet(List.of("revoked:user:u-1"))).thenReturn(Collections.singletonList(null));
+		JwtService legacyJwtService = LegacyTokens.jwtService(EXPIRATION, Instant.now().plus(Duration.ofDays(30)));
+		TokenIntrospectionService legacyIntrospection = new TokenIntrospectionService(legacyJwtService,
+				new TokenRevocationService(redisTemplate, mock(RefreshSessionStore.class), legacyJwtService, EXPIRATION,
+						1000, 0.01),
+				userDetailsService, 0);
+
+		TokenIntrospection active = legacyIntrospection.introspect(legacyToken);
+		assertThat(active.active()).isTrue();
+		assertThat(active.uid()).isNull();
+
+		// e.g. the password was changed after the token was issued
+		when(values.multiGet(List.of("revoked:user:u-1")))
+				.thenReturn(List.of(String.valueOf(issuedAt.plus(Duration.ofDays(1)).toEpochMilli())));
+		assertThat(legacyIntrospection.introspect(legacyToken)).isSameAs(TokenIntrospection.INACTIVE);
+	}
+
+	@Test
+	void legacyTokenOfDeactivatedOrDeletedUserIsInactive() {
+		JwtService legacyJwtService = LegacyTokens.jwtService(EXPIRATION, Instant.now().plus(Duration.ofDays(30)));
+		TokenIntrospectionService legacyIntrospection =
+				new TokenIntrospectionService(legacyJwtService, revocationService, userDetailsService, 0);
+		when(userDetailsService.loadPrincipal("jane@premisave.com"))
+				.thenReturn(new JwtPrincipal("u-1", "jane@premisave.com", Role.CLIENT, false, true));
+		when(userDetailsService.loadPrincipal("gone@premisave.com"))
+				.thenThrow(new UsernameNotFoundException("User not found"));
+
+		assertThat(legacyIntrospection.introspect(LegacyTokens.token("jane@premisave.com", Instant.now())))
+				.isSameAs(TokenIntrospection.INACTIVE);
+		assertThat(legacyIntrospection.introspect(LegacyTokens.token("gone@premisave.com", Instant.now())))
+				.isSameAs(TokenIntrospection.INACTIVE);
+	}
+
+}
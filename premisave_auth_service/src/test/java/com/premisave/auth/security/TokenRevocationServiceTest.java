@@ -0,0 +1,93 @@
+package com.premisave.auth.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationServiceTest {
+
+	private static final long EXPIRATION = Duration.ofMinutes(15).toMillis();
+
+	private final JwtService jwtService = new JwtService(SigningKeyRing.ephemeral(Duration.ofMillis(EXPIRATION)),
+			"premisave-auth", EXPIRATION, "", "");
+
+	@Test
+	void userRevocationDeniesTokensIssuedUpToItsMillisecondOnly() {
+		Claims claims = jwtService.parseValidatedClaims(jwtService.generateToken(TestUsers.jane()));
+		long issuedAt = JwtService.issuedAtMillis(claims);
+		assertThat(issuedAt / 1000).isEqualTo(claims.getIssuedAt().getTime() / 1000);
+
+		// Revoked a millisecond before the token was issued, i.e. signed in again right after a reset
+		assertThat(isRevoked(revocationService(issuedAt - 1), claims)).isFalse();
+		assertThat(isRevoked(revocationService(issuedAt), claims)).isTrue();
+		assertThat(isRevoked(revocationService(issuedAt + 1), claims)).isTrue();
+	}
+
+	@Test
+	void userRevocationLastsAsLongAsAccessTokens() {
+		assertThat(revocationLifetime(jwtService)).isEqualTo(EXPIRATION);
+	}
+
+	@Test
+	void userRevocationLastsWhileLegacyTokensAreAccepted() {
+		JwtService legacyJwtService = LegacyTokens.jwtService(EXPIRATION, Instant.now().plus(Duration.ofDays(20)));
+
+		assertThat(revocationLifetime(legacyJwtService))
+				.isBetween(Duration.ofDays(20).minusMinutes(1).toMillis(), Duration.ofDays(20).toMillis());
+	}
+
+	private boolean isRevoked(TokenRevocationService revocationService, Claims claims) {
+		return revocationService.isRevoked(claims.getId(), claims.get(JwtService.CLAIM_USER_ID, String.class),
+				JwtService.issuedAtMillis(claims));
+	}
+
+	// No filter built yet, so every check reads the token and user keys from Redis
+	@SuppressWarnings("unchecked")
+	private TokenRevocationService revocationService(long userRevokedAt) {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		ValueOperations<String, String> values = mock(ValueOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(values);
+		when(values.multiGet(anyList())).thenReturn(Arrays.asList(null, String.valueOf(userRevokedAt)));
+		return new TokenRevocationService(redisTemplate, mock(RefreshSessionStore.class), jwtService, EXPIRATION,
+				1000, 0.01);
+	}
+
+	// TTL in milliseconds that revokeUser gives the user's revocation key
+	@SuppressWarnings("unchecked")
+	private static long revocationLifetime(JwtService jwtService) {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		StringRedisConnection connection = mock(StringRedisConnection.class);
+		when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+			invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+			return List.of();
+		});
+		new TokenRevocationService(redisTemplate, mock(RefreshSessionStore.class), jwtService, EXPIRATION, 1000, 0.01)
+				.revokeUser("u-1");
+
+		ArgumentCaptor<Expiration> expiration = ArgumentCaptor.forClass(Expiration.class);
+		verify(connection).set(eq("revoked:user:u-1"), anyString(), expiration.capture(),
+				eq(RedisStringCommands.SetOption.upsert()));
+		return expiration.getValue().getExpirationTimeInMilliseconds();
+	}
+
+}
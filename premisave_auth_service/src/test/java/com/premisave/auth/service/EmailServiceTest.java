@@ -0,0 +1,89 @@
+package com.premisave.auth.service;
+
+import com.premisave.auth.config.RabbitMQConfig;
+import com.premisave.auth.dto.EmailMessage;
+import jakarta.mail.Message.RecipientType;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class EmailServiceTest {
+
+	private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+	private final SmtpTransportPool transportPool = mock(SmtpTransportPool.class);
+	private final EmailService emailService =
+			new EmailService(new JavaMailSenderImpl(), rabbitTemplate, transportPool, 3, 1000, 2.0, 3000);
+
+	@Test
+	void eachFailedEmailIsRetriedWithBackoffThenDeadLettered() {
+		failSendsTo("flaky@premisave.com", "down@premisave.com");
+
+		emailService.sendBatch(List.of(
+				new EmailMessage("ok@premisave.com", "Activate", "<p>hi</p>"),
+				new EmailMessage("flaky@premisave.com", "Activate", "<p>hi</p>", 2),
+				new EmailMessage("down@premisave.com", "Reset", "<p>hi</p>", 3),
+				new EmailMessage("Jane <jane@premisave.com", "Reset", "<p>hi</p>")));
+
+		// Third failure: backoff capped at the max interval
+		assertThat(republished(RabbitMQConfig.EMAIL_RETRY_QUEUE,
+				new EmailMessage("flaky@premisave.com", "Activate", "<p>hi</p>", 3)).getExpiration())
+				.isEqualTo("3000");
+		// Out of retries, or can never be built: moved to the DLQ with the reason
+		assertThat(republished(RabbitMQConfig.EMAIL_DEAD_LETTER_QUEUE,
+				new EmailMessage("down@premisave.com", "Reset", "<p>hi</p>", 3))
+				.<String>getHeader("x-exception-message")).isEqualTo("550 mailbox unavailable");
+		assertThat(republished(RabbitMQConfig.EMAIL_DEAD_LETTER_QUEUE,
+				new EmailMessage("Jane <jane@premisave.com", "Reset", "<p>hi</p>"))
+				.<String>getHeader("x-exception-message")).isNotBlank();
+		verifyNoMoreInteractions(rabbitTemplate);
+	}
+
+	@Test
+	void firstFailureIsRetriedAfterTheInitialInterval() {
+		failSendsTo("flaky@premisave.com");
+
+		emailService.sendBatch(List.of(new EmailMessage("flaky@premisave.com", "Activate", "<p>hi</p>")));
+
+		assertThat(republished(RabbitMQConfig.EMAIL_RETRY_QUEUE,
+				new EmailMessage("flaky@premisave.com", "Activate", "<p>hi</p>", 1)).getExpiration())
+				.isEqualTo("1000");
+	}
+
+	private void failSendsTo(String... recipients) {
+		when(transportPool.sendAll(anyList())).thenAnswer(invocation -> {
+			Map<MimeMessage, Exception> failures = new LinkedHashMap<>();
+			for (MimeMessage message : invocation.<List<MimeMessage>>getArgument(0)) {
+				String to = message.getRecipients(RecipientType.TO)[0].toString();
+				if (List.of(recipients).contains(to)) {
+					failures.put(message, new MessagingException("550 mailbox unavailable"));
+				}
+			}
+			return failures;
+		});
+	}
+
+	// Properties the message was republished with
+	private MessageProperties republished(String queue, EmailMessage message) {
+		ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+		verify(rabbitTemplate).convertAndSend(eq(queue), eq(message), postProcessor.capture());
+		return postProcessor.getValue().postProcessMessage(new Message(new byte[0])).getMessageProperties();
+	}
+}
@@ -0,0 +1,123 @@
+package com.premisave.auth.service;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SmtpTransportPoolTest {
+
+	private GreenMail greenMail;
+	private JavaMailSenderImpl mailSender;
+
+	@BeforeEach
+	void startSmtpServer() {
+		startGreenMail(ServerSetupTest.SMTP.dynamicPort());
+
+		mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("localhost");
+		mailSender.setPort(greenMail.getSmtp().getPort());
+		mailSender.setUsername("noreply");
+		mailSender.setPassword("secret");
+		mailSender.getJavaMailProperties().put("mail.smtp.auth", "true");
+	}
+
+	@AfterEach
+	void stopSmtpServer() {
+		greenMail.stop();
+	}
+
+	@Test
+	void sendAllReusesOneConnectionAcrossBatches() throws Exception {
+		SmtpTransportPool pool = pool(Duration.ofMinutes(5));
+
+		assertThat(pool.sendAll(messages(5))).isEmpty();
+		assertThat(pool.sendAll(messages(3))).isEmpty();
+		pool.send(messages(1).get(0));
+
+		assertThat(greenMail.getReceivedMessages()).hasSize(9);
+		assertThat(pool.connectionsOpened()).isEqualTo(1);
+		assertThat(pool.idleConnections()).isEqualTo(1);
+		pool.shutdown();
+	}
+
+	@Test
+	void virtualThreadCallersSendOnPlatformThreads() throws Exception {
+		SmtpTransportPool pool = pool(Duration.ofMinutes(5));
+		List<MimeMessage> batch = messages(3);
+		AtomicReference<Map<MimeMessage, Exception>> failures = new AtomicReference<>();
+
+		Thread.ofVirtual().start(() -> failures.set(pool.sendAll(batch))).join();
+
+		assertThat(failures.get()).isEmpty();
+		assertThat(greenMail.getReceivedMessages()).hasSize(3);
+		assertThat(pool.connectionsOpened()).isEqualTo(1);
+		pool.shutdown();
+	}
+
+	@Test
+	void evictIdleClosesExpiredConnections() throws Exception {
+		SmtpTransportPool pool = pool(Duration.ZERO);
+
+		pool.sendAll(messages(2));
+		pool.evictIdle();
+
+		assertThat(pool.idleConnections()).isZero();
+		pool.sendAll(messages(1));
+		assertThat(pool.connectionsOpened()).isEqualTo(2);
+		assertThat(greenMail.getReceivedMessages()).hasSize(3);
+		pool.shutdown();
+	}
+
+	@Test
+	void reconnectsWhenServerDropsConnection() throws Exception {
+		SmtpTransportPool pool = pool(Duration.ofMinutes(5));
+		pool.sendAll(messages(1));
+
+		int port = greenMail.getSmtp().getPort();
+		greenMail.stop();
+		startGreenMail(new ServerSetup(port, null, ServerSetup.PROTOCOL_SMTP));
+		Map<MimeMessage, Exception> failures = pool.sendAll(messages(2));
+
+		assertThat(failures).isEmpty();
+		assertThat(pool.connectionsOpened()).isEqualTo(2);
+		pool.shutdown();
+	}
+
+	private void startGreenMail(ServerSetup setup) {
+		greenMail = new GreenMail(setup);
+		greenMail.setUser("noreply@premisave.com", "noreply", "secret");
+		greenMail.start();
+	}
+
+	private SmtpTransportPool pool(Duration idleTimeout) {
+		return new SmtpTransportPool(mailSender, 2, idleTimeout, Duration.ofMinutes(5), Duration.ofSeconds(5));
+	}
+
+	private List<MimeMessage> messages(int count) throws Exception {
+		List<MimeMessage> messages = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			MimeMessage message = mailSender.createMimeMessage();
+			MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+			helper.setFrom("noreply@premisave.com");
+			helper.setTo("user" + i + "@example.com");
+			helper.setSubject("Activate Your Premisave Account");
+			helper.setText("<p>Hello " + i + "</p>", true);
+			messages.add(message);
+		}
+		return messages;
+	}
+}
@@ -0,0 +1,78 @@
+package com.premisave.auth.service;
+
+import com.premisave.auth.entity.User;
+import com.premisave.auth.mapper.UserMapper;
+import com.premisave.auth.security.BoundedPasswordEncoder;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserImportServiceTest {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final BoundedPasswordEncoder passwordEncoder = mock(BoundedPasswordEncoder.class);
+	private final BulkOperations bulk = mock(BulkOperations.class);
+	private final UserImportService importService = new UserImportService(mongoTemplate, passwordEncoder,
+			JsonMapper.builder().build(), new UserMapper(), mock(AuthService.class));
+
+	@Test
+	void skipsRowsMatchingAMixedCaseAccountAndKeepsEmailsAsTyped() throws Exception {
+		existingEmails("Jane.Doe@Premisave.com");
+		when(passwordEncoder.encodeAll(anyList())).thenReturn(List.of("{bcrypt}hash"));
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, User.class)).thenReturn(bulk);
+
+		String results = importCsv("""
+				email,password
+				Jane.Doe@Premisave.com,secret-one
+				New.User@Premisave.com,secret-two
+				New.User@Premisave.com,secret-three
+				""");
+
+		assertThat(results.lines()).containsExactly(
+				"{\"row\":1,\"email\":\"Jane.Doe@Premisave.com\",\"status\":\"SKIPPED\",\"message\":\"Email already exists\"}",
+				"{\"row\":2,\"email\":\"New.User@Premisave.com\",\"status\":\"CREATED\",\"message\":null}",
+				"{\"row\":3,\"email\":\"New.User@Premisave.com\",\"status\":\"SKIPPED\",\"message\":\"Email already exists\"}");
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<User>> inserted = ArgumentCaptor.forClass(List.class);
+		verify(bulk).insert(inserted.capture());
+		assertThat(inserted.getValue()).extracting(User::getEmail).containsExactly("New.User@Premisave.com");
+	}
+
+	// Answers the $in lookup the way MongoDB does: exact, case-sensitive matches only
+	private void existingEmails(String... emails) {
+		when(mongoTemplate.find(any(Query.class), eq(User.class))).thenAnswer(invocation -> {
+			Query query = invocation.getArgument(0);
+			Collection<?> requested = (Collection<?>) ((Document) query.getQueryObject().get("email")).get("$in");
+			return List.of(emails).stream().filter(requested::contains).map(email -> {
+				User user = new User();
+				user.setEmail(email);
+				return user;
+			}).toList();
+		});
+	}
+
+	private String importCsv(String csv) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		importService.importUsers(UserImportService.Format.CSV,
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,51 @@
+package com.premisave.auth.service;
+
+import com.premisave.auth.mapper.UserMapper;
+import com.premisave.auth.repository.UserRepository;
+import com.premisave.auth.security.TokenRevocationService;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserManagementServiceTest {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final UserManagementService userManagementService = new UserManagementService(mock(UserRepository.class),
+			new UserMapper(), mock(PasswordEncoder.class), mock(UserCache.class), mongoTemplate,
+			JsonMapper.builder().build(), mock(UserSearchService.class), mock(TokenRevocationService.class));
+
+	@Test
+	void invalidExportStatusFailsBeforeTheResponseStarts() {
+		assertThatThrownBy(() -> userManagementService.exportUsers("deleted"))
+				.hasMessage("Invalid status: deleted");
+		verifyNoInteractions(mongoTemplate);
+	}
+
+	@Test
+	void exportWritesOneLinePerUser() throws Exception {
+		when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("users"))).thenReturn(Stream.of(
+				new Document("_id", "u-1").append("email", "jane@premisave.com"),
+				new Document("_id", "u-2").append("email", "john@premisave.com")));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		userManagementService.exportUsers("ACTIVE").writeTo(out);
+
+		assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(2)
+				.allSatisfy(line -> assertThat(line).startsWith("{").contains("@premisave.com"));
+	}
+}
@@ -0,0 +1,36 @@
+package com.premisave.auth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserSearchServiceTest {
+
+	@Test
+	void prefixUpperBoundIncrementsTheLastCodePoint() {
+		assertThat(UserSearchService.prefixUpperBound("jan")).isEqualTo("jao");
+		assertThat(UserSearchService.prefixUpperBound("a퟿")).isEqualTo("a");
+		assertThat(UserSearchService.prefixUpperBound("a￿")).isEqualTo("a𐀀");
+		assertThat(UserSearchService.prefixUpperBound("a􏿿")).isEqualTo("b");
+		assertThat(UserSearchService.prefixUpperBound("􏿿")).isNull();
+	}
+
+	@Test
+	void everyKeyWithThePrefixSortsBelowTheBound() {
+		String prefix = "jo￿";
+		String bound = UserSearchService.prefixUpperBound(prefix);
+		// The old prefix + U+FFFF bound missed the emoji and U+10FFFF continuations
+		for (String key : new String[] { prefix, prefix + "￿", prefix + "😀", prefix + "􏿿" }) {
+			assertThat(utf8Compare(key, bound)).as(key).isNegative();
+		}
+		assertThat(utf8Compare("jp", bound)).isPositive();
+	}
+
+	// Mongo's default ordering: unsigned comparison of the UTF-8 bytes
+	private static int utf8Compare(String a, String b) {
+		return Arrays.compareUnsigned(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+	}
+}
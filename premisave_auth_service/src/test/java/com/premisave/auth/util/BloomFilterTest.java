@@ -0,0 +1,34 @@
+package com.premisave.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+	@Test
+	void containsEverythingPutAndFewOthers() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		String[] members = new String[10_000];
+		for (int i = 0; i < members.length; i++) {
+			members[i] = "token:" + UUID.randomUUID();
+			filter.put(members[i]);
+		}
+
+		for (String member : members) {
+			assertThat(filter.mightContain(member)).isTrue();
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("token:" + UUID.randomUUID())) {
+				falsePositives++;
+			}
+		}
+		// 1% expected; allow generous slack so the test isn't flaky
+		assertThat(falsePositives).isLessThan(2_000);
+		assertThat(filter.size()).isEqualTo(10_000);
+	}
+}
@@ -0,0 +1,69 @@
+package com.premisave.auth.util;
+
+import com.premisave.auth.config.RedisConfig;
+import com.premisave.auth.dto.UserDto;
+import com.premisave.auth.enums.Language;
+import com.premisave.auth.enums.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactRedisSerializerTest {
+
+	@SuppressWarnings({ "deprecation", "removal" })
+	private static final RedisSerializer<Object> LEGACY = RedisSerializer.json();
+
+	private final CompactRedisSerializer cbor = serializer(CompactRedisSerializer.Format.CBOR);
+
+	@Test
+	void roundTripsUserWithoutPassword() {
+		byte[] bytes = cbor.serialize(user());
+
+		assertThat(bytes[0]).isEqualTo(CompactRedisSerializer.MARKER);
+		assertThat(bytes.length).isLessThan(LEGACY.serialize(user()).length / 2);
+
+		UserDto expected = user();
+		expected.setPassword(null);
+		assertThat(cbor.deserialize(bytes)).isEqualTo(expected);
+	}
+
+	@Test
+	void readsLegacyJsonAndWritesItWhenConfigured() {
+		CompactRedisSerializer json = serializer(CompactRedisSerializer.Format.JSON);
+		byte[] legacyBytes = json.serialize("65f1c2a9e4b0a1b2c3d4e5f6");
+
+		assertThat(legacyBytes).isEqualTo(LEGACY.serialize("65f1c2a9e4b0a1b2c3d4e5f6"));
+		assertThat(cbor.deserialize(legacyBytes)).isEqualTo("65f1c2a9e4b0a1b2c3d4e5f6");
+		assertThat(json.deserialize(cbor.serialize(user()))).isInstanceOf(UserDto.class);
+	}
+
+	@Test
+	void treatsUnknownSchemaVersionAsMiss() {
+		byte[] bytes = cbor.serialize(user());
+		bytes[2] = 2;
+
+		assertThat(cbor.deserialize(bytes)).isNull();
+	}
+
+	private static CompactRedisSerializer serializer(CompactRedisSerializer.Format format) {
+		return new CompactRedisSerializer(format, LEGACY, RedisConfig.CACHE_SCHEMAS);
+	}
+
+	private static UserDto user() {
+		UserDto user = new UserDto();
+		user.setId("65f1c2a9e4b0a1b2c3d4e5f6");
+		user.setUsername("jane_doe");
+		user.setFirstName("Jane");
+		user.setLastName("Doe");
+		user.setEmail("jane.doe@premisave.com");
+		user.setPhoneNumber("+254700000000");
+		user.setCountry("Kenya");
+		user.setLanguage(Language.ENGLISH);
+		user.setRole(Role.CLIENT);
+		user.setActive(true);
+		user.setVerified(true);
+		user.setPassword("not-cached");
+		return user;
+	}
+}
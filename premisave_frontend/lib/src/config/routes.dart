@@ -12,12 +12,13 @@ import '../screens/dashboard/operartions/operations_dashboard.dart';
 import '../screens/dashboard/support/support_dashboard.dart';
 import '../screens/profile/profile_screen.dart';
 import '../screens/splash_screen.dart';
+import '../services/auth_session.dart';
 import '../services/secure_storage.dart';
 
 final GoRouter router = GoRouter(
   initialLocation: '/',
   redirect: (context, state) async {
-    final token = await SecureStorage.getToken();
+    final token = await AuthSession.token();
     final role = await SecureStorage.getRole();
     final isAuthenticated = token != null;
 
@@ -2,11 +2,13 @@ class AuthResponse {
   final String token;
   final String role;
   final String redirectUrl;
+  final String? refreshToken;
 
   AuthResponse({
     required this.token,
     required this.role,
     required this.redirectUrl,
+    this.refreshToken,
   });
 
   factory AuthResponse.fromJson(Map<String, dynamic> json) {
@@ -14,6 +16,7 @@ class AuthResponse {
       token: json['token'] ?? '',
       role: json['role'] ?? 'CLIENT',
       redirectUrl: json['redirectUrl'] ?? '/dashboard/client',
+      refreshToken: json['refreshToken'],
     );
   }
 }
\ No newline at end of file
@@ -2,7 +2,7 @@ import 'package:flutter_riverpod/flutter_riverpod.dart';
 import 'package:dio/dio.dart';
 import '../../config/app_config.dart';
 import '../../models/auth/user_model.dart';
-import '../../services/secure_storage.dart';
+import '../../services/auth_session.dart';
 import '../../utils/toast_utils.dart';
 
 final userManagementProvider = StateNotifierProvider<UserManagementNotifier, UserManagementState>(
@@ -50,14 +50,17 @@ class UserManagementState {
 }
 
 class UserManagementNotifier extends StateNotifier<UserManagementState> {
-  final Dio _dio = Dio(BaseOptions(baseUrl: AppConfig.baseUrl));
+  // Largest page the server hands out (UserManagementService.MAX_PAGE_SIZE)
+  static const int _pageSize = 500;
+
+  final Dio _dio = Dio(BaseOptions(baseUrl: AppConfig.baseUrl))..interceptors.add(AuthSession.interceptor());
 
   UserManagementNotifier() : super(UserManagementState()) {
     _loadUsers();
   }
 
   Future<void> _loadUsers() async {
-    final token = await SecureStorage.getToken();
+    final token = await AuthSession.token();
     if (token == null) {
       ToastUtils.showErrorToast('Authentication required');
       return;
@@ -65,14 +68,23 @@ class UserManagementNotifier extends StateNotifier<UserManagementState> {
 
     state = state.copyWith(isLoading: true, error: null);
     try {
-      final response = await _dio.get(
-        '/admin/users',
-        options: Options(headers: {'Authorization': 'Bearer $token'}),
-      );
-
-      final List<UserModel> users = (response.data as List)
-          .map((json) => UserModel.fromJson(json))
-          .toList();
+      // The listing is paged by cursor ({users, nextCursor}); follow it until the last page
+      final List<UserModel> users = [];
+      String? cursor;
+      do {
+        final response = await _dio.get(
+          '/admin/users',
+          queryParameters: {
+            'limit': _pageSize,
+            if (cursor != null) 'cursor': cursor,
+          },
+          options: Options(headers: {'Authorization': 'Bearer $token'}),
+        );
+
+        final page = response.data as Map<String, dynamic>;
+        users.addAll((page['users'] as List).map((json) => UserModel.fromJson(json)));
+        cursor = page['nextCursor'] as String?;
+      } while (cursor != null);
 
       state = state.copyWith(
         users: users,
@@ -99,7 +111,7 @@ class UserManagementNotifier extends StateNotifier<UserManagementState> {
   }
 
   Future<void> searchUsers(String query) async {
-    final token = await SecureStorage.getToken();
+    final token = await AuthSession.token();
     if (token == null) {
       ToastUtils.showErrorToast('Authentication required');
       return;
@@ -134,7 +146,7 @@ class UserManagementNotifier extends StateNotifier<UserManagementState> {
   }
 
   Future<void> createUser(Map<String, dynamic> userData) async {
-    final token = await SecureStorage.getToken();
+    final token = await AuthSession.token();
     if (token == null) {
       ToastUtils.showErrorToast('Authentication required');
       return;
@@ -178,7 +190,7 @@ class UserManagementNotifier extends StateNotifier<UserManagementState> {
   }
 
   Future<void> updateUser(String userId, Map<String, dynamic> userData) async {
-    final token = await SecureStorage.getToken();
+    final token = await AuthSession.token();
     if (token == null) {
       ToastUtils.showErrorToast('Authentication required');
       return;
@@ -225,7 +237,7 @@ class UserManagementNotifier extends StateNotifier<UserManagementState> {
   }
 
   Future<void> updatePassword(String userId, String newPassword) async {
-    final token = await SecureStorage.getToken();
+    final token = await AuthSession.token();
     if (token == null) {
       ToastUtils.showErrorToast('Authentication required');
       return;
@@ -255,7 +267,7 @@ class UserManagementNotifier extends StateNotifier<UserManagementState> {
   }
 
   Future<void> deleteUser(String userId) async {
-    final token = await SecureStorage.getToken();
+    final token = await AuthSession.token();
     if (token == null) {
       ToastUtils.showErrorToast('Authentication required');
       return;
@@ -294,7 +306,7 @@ class UserManagementNotifier extends StateNotifier<UserManagementState> {
   }
 
   Future<void> toggleUserStatus(String userId, bool activate) async {
-    final token = await SecureStorage.getToken();
+    final token = await AuthSession.token();
     if (token == null) {
       ToastUtils.showErrorToast('Authentication required');
       return;
@@ -347,7 +359,7 @@ class UserManagementNotifier extends StateNotifier<UserManagementState> {
   }
 
   Future<void> toggleVerification(String userId, bool verify) async {
-    final token = await SecureStorage.getToken();
+    final token = await AuthSession.token();
     if (token == null) {
       ToastUtils.showErrorToast('Authentication required');
       return;
@@ -400,7 +412,7 @@ class UserManagementNotifier extends StateNotifier<UserManagementState> {
   }
 
   Future<void> toggleArchive(String userId, bool archive) async {
-    final token = await SecureStorage.getToken();
+    final token = await AuthSession.token();
     if (token == null) {
       ToastUtils.showErrorToast('Authentication required');
       return;
@@ -433,7 +445,7 @@ class UserManagementNotifier extends StateNotifier<UserManagementState> {
   }
 
   Future<void> changeUserRole(String userId, String role) async {
-    final token = await SecureStorage.getToken();
+    final token = await AuthSession.token();
     if (token == null) {
       ToastUtils.showErrorToast('Authentication required');
       return;
@@ -9,6 +9,7 @@ import 'package:image_picker/image_picker.dart';
 import '../../config/app_config.dart';
 import '../../models/auth/auth_response.dart';
 import '../../models/auth/user_model.dart';
+import '../../services/auth_session.dart';
 import '../../services/secure_storage.dart';
 import '../../utils/toast_utils.dart';
 
@@ -59,34 +60,35 @@ class AuthState {
 }
 
 class AuthNotifier extends StateNotifier<AuthState> {
-  final Dio _dio = Dio(BaseOptions(baseUrl: AppConfig.baseUrl));
+  final Dio _dio = Dio(BaseOptions(baseUrl: AppConfig.baseUrl))..interceptors.add(AuthSession.interceptor());
   final GoogleSignIn _googleSignIn = GoogleSignIn(
     scopes: ['email', 'profile'],
   );
 
   AuthNotifier() : super(AuthState()) {
+    // Keep state.token in step with refreshes made by any caller
+    AuthSession.onTokenRefreshed = (token) async {
+      final expiry = await SecureStorage.getTokenExpiry();
+      if (mounted) state = state.copyWith(token: token, tokenExpiry: expiry);
+    };
     checkAuthStatus();
   }
 
   // Public method that can be called from main.dart
   Future<void> checkAuthStatus() async {
     try {
-      final token = await SecureStorage.getToken();
+      // Refreshes first if the stored access token has expired
+      final token = await AuthSession.token();
       final role = await SecureStorage.getRole();
       final expiry = await SecureStorage.getTokenExpiry();
 
       if (token != null && role != null) {
-        // Check if token needs refresh (within 7 days of expiry)
-        if (await SecureStorage.shouldRefreshToken()) {
-          await _refreshToken();
-        } else {
-          state = state.copyWith(
-              token: token,
-              role: role,
-              tokenExpiry: expiry
-          );
-          await loadCurrentUser();
-        }
+        state = state.copyWith(
+            token: token,
+            role: role,
+            tokenExpiry: expiry
+        );
+        await loadCurrentUser();
       }
     } catch (e) {
       print('Error checking auth status: $e');
@@ -94,33 +96,23 @@ class AuthNotifier extends StateNotifier<AuthState> {
   }
 
   Future<void> _refreshToken() async {
-    final oldToken = await SecureStorage.getToken();
-    if (oldToken == null) return;
-
-    try {
-      state = state.copyWith(isLoading: true);
-      final response = await _dio.post(
-        '/auth/refresh',
-        options: Options(headers: {'Authorization': 'Bearer $oldToken'}),
-      );
-
-      final newToken = response.data['token'] as String;
-      await SecureStorage.saveToken(newToken);
-
-      final expiry = await SecureStorage.getTokenExpiry();
-      state = state.copyWith(
-        token: newToken,
-        tokenExpiry: expiry,
-        isLoading: false,
-      );
-
-      await loadCurrentUser();
-    } catch (e) {
-      print('Token refresh failed: $e');
+    state = state.copyWith(isLoading: true);
+    final newToken = await AuthSession.refresh();
+    if (newToken == null) {
       // If refresh fails, clear token and logout
       await _logoutSilently();
       state = state.copyWith(isLoading: false);
+      return;
     }
+
+    final expiry = await SecureStorage.getTokenExpiry();
+    state = state.copyWith(
+      token: newToken,
+      tokenExpiry: expiry,
+      isLoading: false,
+    );
+
+    await loadCurrentUser();
   }
 
   Future<void> _logoutSilently() async {
@@ -384,8 +376,8 @@ class AuthNotifier extends StateNotifier<AuthState> {
       });
       final authRes = AuthResponse.fromJson(response.data);
 
-      // Save with 30-day expiry
-      await SecureStorage.saveToken(authRes.token);
+      // Short-lived access token plus the refresh token that renews it
+      await SecureStorage.saveToken(authRes.token, refreshToken: authRes.refreshToken);
       await SecureStorage.saveRole(authRes.role);
 
       final expiry = await SecureStorage.getTokenExpiry();
@@ -475,7 +467,7 @@ class AuthNotifier extends StateNotifier<AuthState> {
       final response = await _dio.post('/auth/social/google', data: {'token': idToken});
       final authRes = AuthResponse.fromJson(response.data);
 
-      await SecureStorage.saveToken(authRes.token);
+      await SecureStorage.saveToken(authRes.token, refreshToken: authRes.refreshToken);
       await SecureStorage.saveRole(authRes.role);
 
       final expiry = await SecureStorage.getTokenExpiry();
@@ -518,7 +510,7 @@ class AuthNotifier extends StateNotifier<AuthState> {
       final response = await _dio.post('/auth/social/facebook', data: {'token': accessToken});
       final authRes = AuthResponse.fromJson(response.data);
 
-      await SecureStorage.saveToken(authRes.token);
+      await SecureStorage.saveToken(authRes.token, refreshToken: authRes.refreshToken);
       await SecureStorage.saveRole(authRes.role);
 
       final expiry = await SecureStorage.getTokenExpiry();
@@ -567,7 +559,7 @@ class AuthNotifier extends StateNotifier<AuthState> {
       final response = await _dio.post('/auth/social/apple', data: {'token': idToken});
       final authRes = AuthResponse.fromJson(response.data);
 
-      await SecureStorage.saveToken(authRes.token);
+      await SecureStorage.saveToken(authRes.token, refreshToken: authRes.refreshToken);
       await SecureStorage.saveRole(authRes.role);
 
       final expiry = await SecureStorage.getTokenExpiry();
@@ -758,7 +750,7 @@ class AuthNotifier extends StateNotifier<AuthState> {
     );
 
     if (confirmed == true) {
-      await SecureStorage.clear();
+      await AuthSession.logout();
       state = AuthState();
       ToastUtils.showInfoToast('Logged out successfully');
       if (context.mounted) {
@@ -0,0 +1,134 @@
+import 'package:dio/dio.dart';
+import '../config/app_config.dart';
+import 'secure_storage.dart';
+
+/// Keeps the short-lived access token fresh. Access tokens expire after minutes; the refresh
+/// token returned at sign-in is exchanged for a new pair before the access token's `exp`, or
+/// after a request comes back 401. Each refresh token works once, so concurrent callers share
+/// a single in-flight refresh; callers that don't share it, such as other tabs on the web, may
+/// lose the race and then pick up the pair the winner stored.
+class AuthSession {
+  // Refresh this long before `exp` so a request doesn't leave with a token about to lapse
+  static const Duration _expiryMargin = Duration(seconds: 30);
+
+  // No interceptor of its own, so a failed refresh or retry can't loop
+  static final Dio _dio = Dio(BaseOptions(baseUrl: AppConfig.baseUrl));
+
+  // After a 409, how long to keep looking for the token pair another tab is storing
+  static const int _staleRereads = 5;
+  static const Duration _staleRereadDelay = Duration(milliseconds: 200);
+
+  static Future<String?>? _refreshing;
+
+  /// Called with the new access token after every successful refresh.
+  static void Function(String token)? onTokenRefreshed;
+
+  /// The access token to send, refreshed first if it has expired or is about to. Null when
+  /// signed out or when the session could not be renewed.
+  static Future<String?> token() async {
+    final token = await SecureStorage.getToken();
+    if (token == null) return null;
+
+    final expiry = await SecureStorage.getTokenExpiry();
+    if (expiry != null && DateTime.now().add(_expiryMargin).isBefore(expiry)) {
+      return token;
+    }
+    return refresh();
+  }
+
+  /// Exchanges the stored refresh token for a new access and refresh token. Clears the session
+  /// and returns null if the server refuses it.
+  static Future<String?> refresh() {
+    return _refreshing ??= _refresh().whenComplete(() => _refreshing = null);
+  }
+
+  static Future<String?> _refresh() async {
+    final refreshToken = await SecureStorage.getRefreshToken();
+    if (refreshToken == null) {
+      await SecureStorage.clear();
+      return null;
+    }
+
+    try {
+      final response = await _dio.post('/auth/refresh', data: {'refreshToken': refreshToken});
+      final token = response.data['token'] as String;
+      await SecureStorage.saveToken(token, refreshToken: response.data['refreshToken'] as String?);
+      onTokenRefreshed?.call(token);
+      return token;
+    } on DioException catch (e) {
+      final status = e.response?.statusCode;
+      // Another tab sharing this storage refreshed first: 409 means the server saw exactly that,
+      // but any failure after the stored token changed is the same race. Use the pair it stored;
+      // the old refresh token must not be sent again, as past the grace window that ends the session.
+      final stored = await _awaitNewerToken(refreshToken, wait: status == 409);
+      if (stored != null) {
+        onTokenRefreshed?.call(stored);
+        return stored;
+      }
+      if (status == 400 || status == 401 || status == 403) {
+        // Expired, revoked or reused: the session is over
+        await SecureStorage.clear();
+      }
+      return null;
+    }
+  }
+
+  /// The access token stored alongside a refresh token other than [sent], if one appears. With
+  /// [wait], re-reads storage a few times in case the other tab's write hasn't landed yet.
+  static Future<String?> _awaitNewerToken(String sent, {required bool wait}) async {
+    for (var attempt = 0; attempt <= (wait ? _staleRereads : 0); attempt++) {
+      if (attempt > 0) await Future.delayed(_staleRereadDelay);
+      final current = await SecureStorage.getRefreshToken();
+      if (current != null && current != sent) {
+        return SecureStorage.getToken();
+      }
+    }
+    return null;
+  }
+
+  /// Ends the session on the server as well, so the refresh token can't be used again.
+  static Future<void> logout() async {
+    final token = await SecureStorage.getToken();
+    final refreshToken = await SecureStorage.getRefreshToken();
+    try {
+      if (refreshToken != null) {
+        await _dio.post(
+          '/auth/logout',
+          data: {'refreshToken': refreshToken},
+          options: Options(headers: {if (token != null) 'Authorization': 'Bearer $token'}),
+        );
+      }
+    } on DioException catch (e) {
+      print('Logout request failed: ${e.message}');
+    } finally {
+      await SecureStorage.clear();
+    }
+  }
+
+  /// Retries a request once with a refreshed token when it fails with 401.
+  static Interceptor interceptor() {
+    return InterceptorsWrapper(
+      onError: (error, handler) async {
+        final options = error.requestOptions;
+        final isAuthCall = options.path.startsWith('/auth/');
+        if (error.response?.statusCode != 401 ||
+            isAuthCall ||
+            !options.headers.containsKey('Authorization') ||
+            options.extra['retried'] == true) {
+          return handler.next(error);
+        }
+
+        final token = await refresh();
+        if (token == null) return handler.next(error);
+
+        options.headers['Authorization'] = 'Bearer $token';
+        options.extra['retried'] = true;
+        try {
+          return handler.resolve(await _dio.fetch(options));
+        } on DioException catch (retryError) {
+          return handler.next(retryError);
+        }
+      },
+    );
+  }
+}
@@ -1,3 +1,5 @@
+import 'dart:convert';
+
 import 'package:flutter_secure_storage/flutter_secure_storage.dart';
 
 class SecureStorage {
@@ -7,55 +9,50 @@ class SecureStorage {
     webOptions: WebOptions(publicKey: 'premisave_auth'),
   );
 
-  static Future<void> saveToken(String token) async {
-    final expiry = DateTime.now().add(const Duration(days: 30)).toIso8601String();
+  // Used only if a token carries no readable `exp`; matches the server's default lifetime
+  static const Duration _fallbackLifetime = Duration(minutes: 15);
+
+  /// Stores the access token with its real expiry, read from its `exp` claim, and the refresh
+  /// token when one was issued.
+  static Future<void> saveToken(String token, {String? refreshToken}) async {
+    final expiry = (_expiryOf(token) ?? DateTime.now().add(_fallbackLifetime)).toIso8601String();
     await _storage.write(key: 'token', value: token);
     await _storage.write(key: 'token_expiry', value: expiry);
+    if (refreshToken != null) {
+      await _storage.write(key: 'refresh_token', value: refreshToken);
+    }
   }
 
-  static Future<String?> getToken() async {
-    final token = await _storage.read(key: 'token');
-    final expiryStr = await _storage.read(key: 'token_expiry');
-
-    if (token == null || expiryStr == null) return null;
+  /// The stored access token, expired or not; use AuthSession.token() to get a usable one.
+  static Future<String?> getToken() async => await _storage.read(key: 'token');
 
-    try {
-      final expiryDate = DateTime.parse(expiryStr);
-      if (DateTime.now().isAfter(expiryDate)) {
-        await clear();
-        return null;
-      }
-      return token;
-    } catch (e) {
-      return token;
-    }
-  }
+  static Future<String?> getRefreshToken() async => await _storage.read(key: 'refresh_token');
 
   static Future<String?> getRole() async => await _storage.read(key: 'role');
   static Future<void> saveRole(String role) async => await _storage.write(key: 'role', value: role);
   static Future<void> clear() async => await _storage.deleteAll();
 
-  static Future<bool> shouldRefreshToken() async {
+  static Future<DateTime?> getTokenExpiry() async {
     final expiryStr = await _storage.read(key: 'token_expiry');
-    if (expiryStr == null) return false;
+    if (expiryStr == null) return null;
 
     try {
-      final expiryDate = DateTime.parse(expiryStr);
-      final daysUntilExpiry = expiryDate.difference(DateTime.now()).inDays;
-      return daysUntilExpiry < 7;
+      return DateTime.parse(expiryStr);
     } catch (e) {
-      return false;
+      return null;
     }
   }
 
-  static Future<DateTime?> getTokenExpiry() async {
-    final expiryStr = await _storage.read(key: 'token_expiry');
-    if (expiryStr == null) return null;
+  static DateTime? _expiryOf(String token) {
+    final parts = token.split('.');
+    if (parts.length != 3) return null;
 
     try {
-      return DateTime.parse(expiryStr);
+      final payload = jsonDecode(utf8.decode(base64Url.decode(base64Url.normalize(parts[1]))));
+      final exp = payload['exp'];
+      return exp is int ? DateTime.fromMillisecondsSinceEpoch(exp * 1000) : null;
     } catch (e) {
       return null;
     }
   }
-}
\ No newline at end of file
+}